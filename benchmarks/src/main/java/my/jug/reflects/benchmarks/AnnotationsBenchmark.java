@@ -0,0 +1,69 @@
+package my.jug.reflects.benchmarks;
+
+import static my.jug.reflects.Reflects.onClass;
+import static my.jug.reflects.Reflects.onMethod;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import my.jug.reflects.Reflects.AnnotationData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@code onAnnotations(true)} of classes and methods, including a class with many annotated methods.
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AnnotationsBenchmark {
+
+    private Method method;
+
+    private Fixtures.Marker marker;
+
+    private AnnotationData data;
+
+    @Setup
+    public void setUp() throws Exception {
+        method = Fixtures.Deep.class.getMethod("getName");
+        marker = Fixtures.Named.class.getMethod("getName").getAnnotation(Fixtures.Marker.class);
+        data = AnnotationData.of(marker);
+    }
+
+    @Benchmark
+    public Object proxyValue() {
+        return marker.value();
+    }
+
+    @Benchmark
+    public Object dataValue() {
+        return data.getValue();
+    }
+
+    @Benchmark
+    public List<Annotation> onClassOnAnnotations() {
+        return onClass(Fixtures.Deep.class).onAnnotations(true).get();
+    }
+
+    @Benchmark
+    public List<Annotation> onMethodOnAnnotations() {
+        return onMethod(method).onAnnotations(true).get();
+    }
+
+    @Benchmark
+    public List<Annotation> onMethodsOnAnnotations() {
+        return onClass(Fixtures.Annotated.class).onMethods().onAnnotations(true).get();
+    }
+}
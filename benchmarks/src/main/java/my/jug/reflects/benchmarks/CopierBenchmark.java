@@ -0,0 +1,59 @@
+package my.jug.reflects.benchmarks;
+
+import static my.jug.reflects.Reflects.onClass;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import my.jug.reflects.Reflects;
+import my.jug.reflects.Reflects.Copier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares copying the (40) public fields of {@link Fixtures.Deep} with {@link Field#get(Object)} and
+ * {@link Field#set(Object, Object)} with {@link Copier}.
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CopierBenchmark {
+
+    private Fixtures.Deep source;
+    private Fixtures.Deep target;
+
+    private List<Field> fields;
+    private Copier<Fixtures.Deep, Fixtures.Deep> copier;
+
+    @Setup
+    public void setUp() {
+        source = new Fixtures.Deep();
+        source.field7_4 = 42;
+        target = new Fixtures.Deep();
+        fields = onClass(Fixtures.Deep.class).onFields().get();
+        copier = Reflects.copier(Fixtures.Deep.class, Fixtures.Deep.class);
+    }
+
+    @Benchmark
+    public Object reflect() throws Exception {
+        for (Field f: fields) {
+            f.set(target, f.get(source));
+        }
+        return target;
+    }
+
+    @Benchmark
+    public Object copy() {
+        return copier.copy(source, target);
+    }
+}
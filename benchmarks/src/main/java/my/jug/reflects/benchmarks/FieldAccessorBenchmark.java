@@ -0,0 +1,69 @@
+package my.jug.reflects.benchmarks;
+
+import static my.jug.reflects.Reflects.onField;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import my.jug.reflects.Reflects.FieldAccessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares {@link Field} with {@link FieldAccessor} reading and writing a primitive field.
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FieldAccessorBenchmark {
+
+    public static class Target {
+
+        private long value;
+    }
+
+    private Target source;
+    private Target target;
+
+    private Field field;
+    private FieldAccessor accessor;
+
+    @Setup
+    public void setUp() throws Exception {
+        source = new Target();
+        source.value = 42;
+        target = new Target();
+        field = Target.class.getDeclaredField("value");
+        field.setAccessible(true);
+        accessor = onField(field).accessor();
+    }
+
+    @Benchmark
+    public void reflectBoxed() throws Exception {
+        field.set(target, field.get(source));
+    }
+
+    @Benchmark
+    public void reflect() throws Exception {
+        field.setLong(target, field.getLong(source));
+    }
+
+    @Benchmark
+    public void accessor() {
+        accessor.setLong(target, accessor.getLong(source));
+    }
+
+    @Benchmark
+    public void copy() {
+        accessor.copy(source, target);
+    }
+}
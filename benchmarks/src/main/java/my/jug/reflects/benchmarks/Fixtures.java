@@ -0,0 +1,390 @@
+package my.jug.reflects.benchmarks;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Classes benchmarked: a shallow and a deep hierarchy, and a class with many annotated (and overriding) methods.
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+@SuppressWarnings("unused")
+public final class Fixtures {
+
+    private Fixtures() {}
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public static @interface Marker {
+        String value() default "";
+    }
+
+    public static interface Named {
+
+        @Marker("interface")
+        String getName();
+    }
+
+    public static class Shallow implements Named {
+
+        public int field0_0;
+        public int field0_1;
+        public int field0_2;
+        public int field0_3;
+        public int field0_4;
+        private String hidden0;
+
+        public int getField0_0() { return field0_0; }
+
+        public int getField0_1() { return field0_1; }
+
+        public int getField0_2() { return field0_2; }
+
+        public int getField0_3() { return field0_3; }
+
+        public int getField0_4() { return field0_4; }
+
+        @Marker("Shallow")
+        @Override public String getName() { return "Shallow"; }
+    }
+
+    public static class Deep0 implements Named {
+
+        public int field0_0;
+        public int field0_1;
+        public int field0_2;
+        public int field0_3;
+        public int field0_4;
+        private String hidden0;
+
+        public int getField0_0() { return field0_0; }
+
+        public int getField0_1() { return field0_1; }
+
+        public int getField0_2() { return field0_2; }
+
+        public int getField0_3() { return field0_3; }
+
+        public int getField0_4() { return field0_4; }
+
+        @Marker("Deep0")
+        @Override public String getName() { return "Deep0"; }
+    }
+
+    public static class Deep1 extends Deep0 {
+
+        public int field1_0;
+        public int field1_1;
+        public int field1_2;
+        public int field1_3;
+        public int field1_4;
+        private String hidden1;
+
+        public int getField1_0() { return field1_0; }
+
+        public int getField1_1() { return field1_1; }
+
+        public int getField1_2() { return field1_2; }
+
+        public int getField1_3() { return field1_3; }
+
+        public int getField1_4() { return field1_4; }
+
+        @Marker("Deep1")
+        @Override public String getName() { return "Deep1"; }
+    }
+
+    public static class Deep2 extends Deep1 {
+
+        public int field2_0;
+        public int field2_1;
+        public int field2_2;
+        public int field2_3;
+        public int field2_4;
+        private String hidden2;
+
+        public int getField2_0() { return field2_0; }
+
+        public int getField2_1() { return field2_1; }
+
+        public int getField2_2() { return field2_2; }
+
+        public int getField2_3() { return field2_3; }
+
+        public int getField2_4() { return field2_4; }
+
+        @Marker("Deep2")
+        @Override public String getName() { return "Deep2"; }
+    }
+
+    public static class Deep3 extends Deep2 {
+
+        public int field3_0;
+        public int field3_1;
+        public int field3_2;
+        public int field3_3;
+        public int field3_4;
+        private String hidden3;
+
+        public int getField3_0() { return field3_0; }
+
+        public int getField3_1() { return field3_1; }
+
+        public int getField3_2() { return field3_2; }
+
+        public int getField3_3() { return field3_3; }
+
+        public int getField3_4() { return field3_4; }
+
+        @Marker("Deep3")
+        @Override public String getName() { return "Deep3"; }
+    }
+
+    public static class Deep4 extends Deep3 {
+
+        public int field4_0;
+        public int field4_1;
+        public int field4_2;
+        public int field4_3;
+        public int field4_4;
+        private String hidden4;
+
+        public int getField4_0() { return field4_0; }
+
+        public int getField4_1() { return field4_1; }
+
+        public int getField4_2() { return field4_2; }
+
+        public int getField4_3() { return field4_3; }
+
+        public int getField4_4() { return field4_4; }
+
+        @Marker("Deep4")
+        @Override public String getName() { return "Deep4"; }
+    }
+
+    public static class Deep5 extends Deep4 {
+
+        public int field5_0;
+        public int field5_1;
+        public int field5_2;
+        public int field5_3;
+        public int field5_4;
+        private String hidden5;
+
+        public int getField5_0() { return field5_0; }
+
+        public int getField5_1() { return field5_1; }
+
+        public int getField5_2() { return field5_2; }
+
+        public int getField5_3() { return field5_3; }
+
+        public int getField5_4() { return field5_4; }
+
+        @Marker("Deep5")
+        @Override public String getName() { return "Deep5"; }
+    }
+
+    public static class Deep6 extends Deep5 {
+
+        public int field6_0;
+        public int field6_1;
+        public int field6_2;
+        public int field6_3;
+        public int field6_4;
+        private String hidden6;
+
+        public int getField6_0() { return field6_0; }
+
+        public int getField6_1() { return field6_1; }
+
+        public int getField6_2() { return field6_2; }
+
+        public int getField6_3() { return field6_3; }
+
+        public int getField6_4() { return field6_4; }
+
+        @Marker("Deep6")
+        @Override public String getName() { return "Deep6"; }
+    }
+
+    public static class Deep7 extends Deep6 {
+
+        public int field7_0;
+        public int field7_1;
+        public int field7_2;
+        public int field7_3;
+        public int field7_4;
+        private String hidden7;
+
+        public int getField7_0() { return field7_0; }
+
+        public int getField7_1() { return field7_1; }
+
+        public int getField7_2() { return field7_2; }
+
+        public int getField7_3() { return field7_3; }
+
+        public int getField7_4() { return field7_4; }
+
+        @Marker("Deep7")
+        @Override public String getName() { return "Deep7"; }
+    }
+
+    public static class Deep extends Deep7 {}
+
+    public static class Annotated extends Deep0 {
+
+        @Marker("0") @Deprecated
+        public void method0() {}
+
+        @Marker("1") @Deprecated
+        public void method1() {}
+
+        @Marker("2") @Deprecated
+        public void method2() {}
+
+        @Marker("3") @Deprecated
+        public void method3() {}
+
+        @Marker("4") @Deprecated
+        public void method4() {}
+
+        @Marker("5") @Deprecated
+        public void method5() {}
+
+        @Marker("6") @Deprecated
+        public void method6() {}
+
+        @Marker("7") @Deprecated
+        public void method7() {}
+
+        @Marker("8") @Deprecated
+        public void method8() {}
+
+        @Marker("9") @Deprecated
+        public void method9() {}
+
+        @Marker("10") @Deprecated
+        public void method10() {}
+
+        @Marker("11") @Deprecated
+        public void method11() {}
+
+        @Marker("12") @Deprecated
+        public void method12() {}
+
+        @Marker("13") @Deprecated
+        public void method13() {}
+
+        @Marker("14") @Deprecated
+        public void method14() {}
+
+        @Marker("15") @Deprecated
+        public void method15() {}
+
+        @Marker("16") @Deprecated
+        public void method16() {}
+
+        @Marker("17") @Deprecated
+        public void method17() {}
+
+        @Marker("18") @Deprecated
+        public void method18() {}
+
+        @Marker("19") @Deprecated
+        public void method19() {}
+
+        @Marker("20") @Deprecated
+        public void method20() {}
+
+        @Marker("21") @Deprecated
+        public void method21() {}
+
+        @Marker("22") @Deprecated
+        public void method22() {}
+
+        @Marker("23") @Deprecated
+        public void method23() {}
+
+        @Marker("24") @Deprecated
+        public void method24() {}
+
+        @Marker("25") @Deprecated
+        public void method25() {}
+
+        @Marker("26") @Deprecated
+        public void method26() {}
+
+        @Marker("27") @Deprecated
+        public void method27() {}
+
+        @Marker("28") @Deprecated
+        public void method28() {}
+
+        @Marker("29") @Deprecated
+        public void method29() {}
+
+        @Marker("30") @Deprecated
+        public void method30() {}
+
+        @Marker("31") @Deprecated
+        public void method31() {}
+
+        @Marker("32") @Deprecated
+        public void method32() {}
+
+        @Marker("33") @Deprecated
+        public void method33() {}
+
+        @Marker("34") @Deprecated
+        public void method34() {}
+
+        @Marker("35") @Deprecated
+        public void method35() {}
+
+        @Marker("36") @Deprecated
+        public void method36() {}
+
+        @Marker("37") @Deprecated
+        public void method37() {}
+
+        @Marker("38") @Deprecated
+        public void method38() {}
+
+        @Marker("39") @Deprecated
+        public void method39() {}
+
+        @Marker("40") @Deprecated
+        public void method40() {}
+
+        @Marker("41") @Deprecated
+        public void method41() {}
+
+        @Marker("42") @Deprecated
+        public void method42() {}
+
+        @Marker("43") @Deprecated
+        public void method43() {}
+
+        @Marker("44") @Deprecated
+        public void method44() {}
+
+        @Marker("45") @Deprecated
+        public void method45() {}
+
+        @Marker("46") @Deprecated
+        public void method46() {}
+
+        @Marker("47") @Deprecated
+        public void method47() {}
+
+        @Marker("48") @Deprecated
+        public void method48() {}
+
+        @Marker("49") @Deprecated
+        public void method49() {}
+    }
+}
@@ -0,0 +1,68 @@
+package my.jug.reflects.benchmarks;
+
+import static my.jug.reflects.Reflects.onClass;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Traversal of shallow (1 class) and deep (9 classes) hierarchies, i.e. {@code onClass(c).onMethods()/onFields()}.
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HierarchyBenchmark {
+
+    @Param({"shallow", "deep"})
+    public String hierarchy;
+
+    private Class<?> c;
+
+    @Setup
+    public void setUp() {
+        c = "deep".equals(hierarchy) ? Fixtures.Deep.class : Fixtures.Shallow.class;
+    }
+
+    @Benchmark
+    public List<Class<?>> onClasses() {
+        return onClass(c).onClasses(true, true).get();
+    }
+
+    @Benchmark
+    public List<?> onMethods() {
+        return onClass(c).onMethods().get();
+    }
+
+    @Benchmark
+    public List<?> onMethodsAll() {
+        return onClass(c).onMethods(true, true, true, true).get();
+    }
+
+    @Benchmark
+    public List<?> onEffectiveMethods() {
+        return onClass(c).onEffectiveMethods(true, false).get();
+    }
+
+    @Benchmark
+    public List<?> onFields() {
+        return onClass(c).onFields().get();
+    }
+
+    @Benchmark
+    public List<?> onFieldsAll() {
+        return onClass(c).onFields(true, true, true, true).get();
+    }
+}
@@ -0,0 +1,92 @@
+package my.jug.reflects.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Supplier;
+import my.jug.reflects.Reflects;
+import my.jug.reflects.Reflects.Instantiator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares {@link Constructor#newInstance(Object...)} with {@link Instantiator} and a direct {@code new}.
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InstantiatorBenchmark {
+
+    public static class Point {
+
+        final Object x;
+        final Object y;
+
+        public Point() {
+            this(null, null);
+        }
+
+        public Point(Object x, Object y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private Object x;
+    private Object y;
+
+    private Constructor<Point> constructor;
+    private Instantiator<Point> instantiator;
+    private Supplier<Point> supplier;
+    private MethodHandle handle;
+
+    @Setup
+    public void setUp() throws Exception {
+        x = "x";
+        y = "y";
+        constructor = Point.class.getConstructor(Object.class, Object.class);
+        instantiator = Reflects.instantiator(Point.class, Object.class, Object.class);
+        supplier = Reflects.instantiator(Point.class).asSupplier();
+        handle = instantiator.getHandle();
+    }
+
+    @Benchmark
+    public Point direct() {
+        return new Point(x, y);
+    }
+
+    @Benchmark
+    public Point reflect() throws Exception {
+        return constructor.newInstance(x, y);
+    }
+
+    @Benchmark
+    public Point newInstance() throws Exception {
+        return instantiator.newInstance(x, y);
+    }
+
+    @Benchmark
+    public Point create() throws Exception {
+        return instantiator.create(x, y);
+    }
+
+    @Benchmark
+    public Point supplier() {
+        return supplier.get();
+    }
+
+    @Benchmark
+    public Point invokeExact() throws Throwable {
+        return (Point) handle.invokeExact(x, y);
+    }
+}
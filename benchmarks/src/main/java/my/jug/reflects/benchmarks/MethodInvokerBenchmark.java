@@ -0,0 +1,81 @@
+package my.jug.reflects.benchmarks;
+
+import static my.jug.reflects.Reflects.onMethod;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import my.jug.reflects.Reflects.MethodInvoker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares {@link Method#invoke(Object, Object...)} with {@link MethodInvoker} and a direct call.
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MethodInvokerBenchmark {
+
+    public static class Target {
+
+        private int total;
+
+        public int add(int a, int b) {
+            return total += a + b;
+        }
+    }
+
+    private Target target;
+    private int a;
+    private int b;
+
+    private Method method;
+    private MethodInvoker invoker;
+    private MethodHandle handle;
+
+    @Setup
+    public void setUp() throws Exception {
+        target = new Target();
+        a = 1;
+        b = 2;
+        method = Target.class.getMethod("add", int.class, int.class);
+        invoker = onMethod(method).invoker();
+        handle = invoker.getHandle();
+    }
+
+    @Benchmark
+    public int direct() {
+        return target.add(a, b);
+    }
+
+    @Benchmark
+    public Object reflect() throws Exception {
+        return method.invoke(target, a, b);
+    }
+
+    @Benchmark
+    public Object invoke() throws Exception {
+        return invoker.invoke(target, a, b);
+    }
+
+    @Benchmark
+    public Object call() throws Exception {
+        return invoker.call(target, a, b);
+    }
+
+    @Benchmark
+    public int invokeExact() throws Throwable {
+        return (int) handle.invokeExact(target, a, b);
+    }
+}
@@ -0,0 +1,75 @@
+package my.jug.reflects.benchmarks;
+
+import static my.jug.reflects.Reflects.onClass;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import my.jug.reflects.Reflects.Property;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares resolving and reading the properties of {@link Fixtures.Deep} by name (filtering getters by regular expression
+ * and pairing them with fields) with {@link Property}.
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PropertyBenchmark {
+
+    private Fixtures.Deep target;
+
+    private Method getter;
+    private Property property;
+    private MethodHandle handle;
+
+    @Setup
+    public void setUp() throws Exception {
+        target = new Fixtures.Deep();
+        getter = Fixtures.Deep.class.getMethod("getField4_2");
+        property = onClass(Fixtures.Deep.class).property("field4_2");
+        handle = property.getReadHandle();
+    }
+
+    @Benchmark
+    public int discoverByName() {
+        int r = 0;
+        for (Method m: onClass(Fixtures.Deep.class).onMethods().filter("get.*")) {
+            final String name = Character.toLowerCase(m.getName().charAt(3)) + m.getName().substring(4);
+            r += onClass(Fixtures.Deep.class).onFields().filter(name).size();
+        }
+        return r;
+    }
+
+    @Benchmark
+    public List<Property> onProperties() {
+        return onClass(Fixtures.Deep.class).onProperties().get();
+    }
+
+    @Benchmark
+    public Object reflect() throws Exception {
+        return getter.invoke(target);
+    }
+
+    @Benchmark
+    public Object get() {
+        return property.get(target);
+    }
+
+    @Benchmark
+    public int invokeExact() throws Throwable {
+        return (int) handle.invokeExact(target);
+    }
+}
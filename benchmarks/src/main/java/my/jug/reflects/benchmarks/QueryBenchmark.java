@@ -0,0 +1,128 @@
+package my.jug.reflects.benchmarks;
+
+import static com.google.common.base.Predicates.and;
+import static com.google.common.base.Predicates.not;
+import static my.jug.reflects.Reflects.Predicates.methodOfName;
+import static my.jug.reflects.Reflects.Predicates.methodOfSignature;
+import static my.jug.reflects.Reflects.Predicates.publicMethod;
+import static my.jug.reflects.Reflects.Predicates.staticMethod;
+import static my.jug.reflects.Reflects.onClass;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import my.jug.reflects.Reflects.MemberQuery;
+import my.jug.reflects.Reflects.OnMethods;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@code filter} (by regular expression, simple expression, {@link Pattern} and {@link Predicate}), {@code seek} and
+ * {@code transform} over the methods of a deep hierarchy.
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QueryBenchmark {
+
+    private static final Pattern PATTERN = Pattern.compile("get(Field[0-9]_[0-9]|Name)");
+
+    private static final Predicate<Method> PREDICATE = new Predicate<Method>() { @Override public boolean apply(@Nullable Method m) {
+        return null != m && m.getName().startsWith("getField");
+    }};
+
+    private static final Predicate<Method> COMPOSED = and(publicMethod(), not(staticMethod()), methodOfName("getField.*"));
+
+    private static final MemberQuery QUERY = MemberQuery.builder().withModifiers(Modifier.PUBLIC).withoutModifiers(Modifier.STATIC).named("getField.*").build();
+
+    private static final Function<Method, String> NAME = new Function<Method, String>() { @Override public String apply(@Nullable Method m) {
+        return m.getName();
+    }};
+
+    private OnMethods methods;
+
+    @Setup
+    public void setUp() {
+        methods = onClass(Fixtures.Deep.class).onMethods();
+    }
+
+    @Benchmark
+    public List<Method> filterRegex() {
+        return methods.filter("get(Field[0-9]_[0-9]|Name)");
+    }
+
+    @Benchmark
+    public List<Method> filterSimpleRegex() {
+        return methods.filter("getField.*");
+    }
+
+    @Benchmark
+    public List<Method> filterPattern() {
+        return methods.filter(PATTERN);
+    }
+
+    @Benchmark
+    public List<Method> filterPredicate() {
+        return methods.filter(PREDICATE);
+    }
+
+    @Benchmark
+    public List<Method> filterComposedPredicate() {
+        return methods.filter(COMPOSED);
+    }
+
+    @Benchmark
+    public List<Method> filterMemberQuery() {
+        return methods.filter(QUERY);
+    }
+
+    @Benchmark
+    public Method seek() {
+        return methods.seek(methodOfName("getName"));
+    }
+
+    @Benchmark
+    public Method seekSignature() {
+        return onClass(Fixtures.Deep.class).onMethods().seek(methodOfSignature("getName", String.class));
+    }
+
+    @Benchmark
+    public Method method() {
+        return onClass(Fixtures.Deep.class).method("getName");
+    }
+
+    @Benchmark
+    public List<String> transform() {
+        return methods.transform(NAME);
+    }
+
+    @Benchmark
+    public List<Method> onMethodsFilter() {
+        return onClass(Fixtures.Deep.class).onMethods().filter("getField.*");
+    }
+
+    @Benchmark
+    public List<Method> queryMethodsFilter() {
+        return onClass(Fixtures.Deep.class).queryMethods().filter(PREDICATE).get();
+    }
+
+    @Benchmark
+    public Method queryMethodsSeek() {
+        return onClass(Fixtures.Deep.class).queryMethods().seek(methodOfName("getName"));
+    }
+}
@@ -0,0 +1,73 @@
+package my.jug.reflects.benchmarks;
+
+import static my.jug.reflects.Reflects.onClass;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import my.jug.reflects.Reflects.OnClass;
+import my.jug.reflects.Reflects.Visitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Iterating the methods of a deep hierarchy with a visitor, expected not to allocate ({@code gc.alloc.rate.norm} of
+ * {@code 0}), against iterating the result of {@code onMethods()}.
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VisitorBenchmark {
+
+    private static final class Counter implements Visitor<Object> {
+
+        int count;
+
+        @Override
+        public boolean visit(Object e) {
+            count++;
+            return true;
+        }
+    }
+
+    private final Counter counter = new Counter();
+
+    private OnClass deep;
+
+    @Setup
+    public void setUp() {
+        deep = onClass(Fixtures.Deep.class);
+    }
+
+    @Benchmark
+    public int visitMethods() {
+        counter.count = 0;
+        deep.visitMethods(true, true, false, true, counter);
+        return counter.count;
+    }
+
+    @Benchmark
+    public int visitAnnotations() {
+        counter.count = 0;
+        deep.visitAnnotations(true, counter);
+        return counter.count;
+    }
+
+    @Benchmark
+    public int iterateOnMethods() {
+        int r = 0;
+        for (Method m: deep.onMethods(true, true, false, true).get()) {
+            r++;
+        }
+        return r;
+    }
+}
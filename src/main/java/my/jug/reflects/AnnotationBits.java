@@ -0,0 +1,152 @@
+package my.jug.reflects;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * <p>Annotations of elements as bit sets, each annotation type being assigned a bit (once, globally) on first use.</p>
+ *
+ * <p>Checking that an element carries a set of annotations is then a bit set comparison, against bits computed once per
+ * element and cached in its {@link ClassMetadata}. So is checking for meta-annotations, against the bits of the closures of
+ * the element's annotations, see {@link #metaOf(AnnotatedElement)}.</p>
+ *
+ * <p>The bit of an annotation type is released when the type is collected, and reassigned to the next new type, lowest
+ * first, so that bit sets don't grow as class loaders come and go. Bits are only cached along with their types (an
+ * element's annotations reference them), and holders of bits alone (e.g. {@link Reflects.MemberQuery}) must keep a
+ * reference to their types.</p>
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+final class AnnotationBits {
+
+    private static final ConcurrentMap<Class<?>, Id> IDS = new MapMaker().weakKeys().makeMap();
+
+    private static final ReferenceQueue<Class<?>> COLLECTED = new ReferenceQueue<Class<?>>();
+
+    /**
+     * Assigned ids, until their types are collected (references must be reachable to be enqueued). Guarded by the class.
+     */
+    private static final Set<Id> ASSIGNED = new HashSet<Id>();
+
+    /**
+     * Released ids. Guarded by the class.
+     */
+    private static final BitSet FREE = new BitSet();
+
+    /**
+     * Next id never assigned. Guarded by the class.
+     */
+    private static int next;
+
+    private AnnotationBits() {}
+
+    /**
+     * @param type
+     * @return The bit of the annotation type.
+     */
+    static int id(Class<? extends Annotation> type) {
+        final Id r = IDS.get(type);
+        return null != r ? r.value : assign(type);
+    }
+
+    private static synchronized int assign(Class<? extends Annotation> type) {
+        Id r = IDS.get(type);
+        if (null == r) {
+            for (Reference<?> collected; null != (collected = COLLECTED.poll());) {
+                ASSIGNED.remove(collected);
+                FREE.set(((Id) collected).value);
+            }
+            int value = FREE.nextSetBit(0);
+            if (value < 0) {
+                value = next++;
+            } else {
+                FREE.clear(value);
+            }
+            r = new Id(type, value);
+            ASSIGNED.add(r);
+            IDS.put(type, r);
+        }
+        return r.value;
+    }
+
+    /**
+     * @param types
+     * @return The bits of the annotation types.
+     */
+    static BitSet of(Iterable<Class<? extends Annotation>> types) {
+        final BitSet r = new BitSet();
+        for (Class<? extends Annotation> t: types) {
+            r.set(id(t));
+        }
+        return r;
+    }
+
+    /**
+     * @param e A {@link Class}, or a member.
+     * @return The (cached) bits of the annotations present on the element, as in
+     * {@link AnnotatedElement#isAnnotationPresent(Class)}.
+     */
+    static BitSet of(AnnotatedElement e) {
+        return metadataOf(e).annotationBits(e);
+    }
+
+    /**
+     * @param e A {@link Class}, or a member.
+     * @return The (cached) bits of the annotations present on the element, and of their meta-annotations (transitively).
+     * @see ClassMetadata#annotationClosure()
+     */
+    static BitSet metaOf(AnnotatedElement e) {
+        return metadataOf(e).metaAnnotationBits(e);
+    }
+
+    private static ClassMetadata metadataOf(AnnotatedElement e) {
+        return ClassMetadata.of(e instanceof Class ? (Class<?>) e : ((Member) e).getDeclaringClass());
+    }
+
+    static BitSet compute(AnnotatedElement e) {
+        final BitSet r = new BitSet();
+        for (Annotation a: e.getAnnotations()) {
+            r.set(id(a.annotationType()));
+        }
+        return r;
+    }
+
+    /**
+     * @param bits
+     * @param mask
+     * @return {@code true} if all the bits of the mask are set.
+     */
+    static boolean containsAll(BitSet bits, BitSet mask) {
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+            if (!bits.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Id of an annotation type, enqueued once the type is collected.
+     */
+    private static final class Id extends WeakReference<Class<?>> {
+
+        final int value;
+
+        Id(Class<?> type, int value) {
+            super(type, COLLECTED);
+            this.value = value;
+        }
+    }
+}
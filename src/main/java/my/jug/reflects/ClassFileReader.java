@@ -0,0 +1,247 @@
+package my.jug.reflects;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import my.jug.reflects.Reflects.ClassFile;
+
+/**
+ * <p>Minimal class file parser, extracting the name, super class, interfaces and runtime visible annotations (of the class and
+ * of its members) of a class without loading it.</p>
+ *
+ * <p>Only the constant pool entries needed are decoded, the rest of the class file (code, other attributes) is skipped.</p>
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ * @see <a href="http://docs.oracle.com/javase/specs/jvms/se7/html/jvms-4.html">The class File Format</a>
+ */
+final class ClassFileReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private final byte[] b;
+
+    /**
+     * Offsets of the constant pool entries (pointing to their content, after the tag).
+     */
+    private int[] offsets;
+
+    private String[] strings;
+
+    private int pos;
+
+    private ClassFileReader(byte[] b) {
+        this.b = b;
+    }
+
+    /**
+     * @param b Content of the class file.
+     * @return
+     * @throws IOException If the content is not a valid class file.
+     */
+    static ClassFile read(byte[] b) throws IOException {
+        try {
+            return new ClassFileReader(b).read();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Truncated class file", e);
+        }
+    }
+
+    private ClassFile read() throws IOException {
+
+        if (MAGIC != u4()) {
+            throw new IOException("Not a class file");
+        }
+        pos += 4; // minor_version, major_version
+
+        readConstantPool();
+
+        final int access = u2();
+        final String name = className(u2());
+        final int superIndex = u2();
+        final String superName = 0 == superIndex ? null : className(superIndex);
+
+        final int interfacesCount = u2();
+        final List<String> interfaceNames = new ArrayList<String>(interfacesCount);
+        for (int i = 0; i < interfacesCount; i++) {
+            interfaceNames.add(className(u2()));
+        }
+
+        final Set<String> memberAnnotationNames = new LinkedHashSet<String>();
+        readMembers(memberAnnotationNames); // fields
+        readMembers(memberAnnotationNames); // methods
+
+        final List<String> annotationNames = new ArrayList<String>();
+        readAttributes(annotationNames);
+
+        return new ClassFile(name, access, superName, interfaceNames, annotationNames, memberAnnotationNames);
+    }
+
+    private void readConstantPool() throws IOException {
+
+        final int count = u2();
+
+        offsets = new int[count];
+        strings = new String[count];
+
+        for (int i = 1; i < count; i++) {
+
+            final int tag = u1();
+            offsets[i] = pos;
+
+            switch (tag) {
+                case 1: // Utf8
+                    pos += 2 + u2(pos);
+                    break;
+                case 7: // Class
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    pos += 2;
+                    break;
+                case 15: // MethodHandle
+                    pos += 3;
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    pos += 4;
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    pos += 8;
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag + " at entry " + i);
+            }
+        }
+    }
+
+    private void readMembers(Set<String> annotationNames) throws IOException {
+        final int count = u2();
+        for (int i = 0; i < count; i++) {
+            pos += 6; // access_flags, name_index, descriptor_index
+            readAttributes(annotationNames);
+        }
+    }
+
+    private void readAttributes(Collection<String> annotationNames) throws IOException {
+        final int count = u2();
+        for (int i = 0; i < count; i++) {
+            final String name = utf8(u2());
+            final int length = u4();
+            final int end = pos + length;
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                final int annotations = u2();
+                for (int j = 0; j < annotations; j++) {
+                    annotationNames.add(readAnnotation());
+                }
+            }
+            pos = end;
+        }
+    }
+
+    /**
+     * Read an annotation, skipping its element values.
+     *
+     * @return The name of the annotation type.
+     */
+    private String readAnnotation() throws IOException {
+        final String descriptor = utf8(u2());
+        final int pairs = u2();
+        for (int i = 0; i < pairs; i++) {
+            pos += 2; // element_name_index
+            skipElementValue();
+        }
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    private void skipElementValue() throws IOException {
+        final int tag = u1();
+        switch (tag) {
+            case 'B': case 'C': case 'D': case 'F': case 'I': case 'J': case 'S': case 'Z': case 's': case 'c':
+                pos += 2;
+                break;
+            case 'e':
+                pos += 4;
+                break;
+            case '@':
+                readAnnotation();
+                break;
+            case '[':
+                final int count = u2();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue();
+                }
+                break;
+            default:
+                throw new IOException("Unknown element value tag " + (char) tag);
+        }
+    }
+
+    private String className(int index) throws IOException {
+        return utf8(u2(offsets[index])).replace('/', '.');
+    }
+
+    private String utf8(int index) throws IOException {
+        String r = strings[index];
+        if (null == r) {
+            strings[index] = r = decode(offsets[index]);
+        }
+        return r;
+    }
+
+    /**
+     * Decode a (modified UTF-8) Utf8 entry, taking a shortcut for ASCII-only content.
+     */
+    private String decode(int offset) throws IOException {
+        final int length = u2(offset);
+        final int start = offset + 2;
+        for (int i = start; i < start + length; i++) {
+            if (b[i] < 0) {
+                return new DataInputStream(new ByteArrayInputStream(b, offset, length + 2)).readUTF();
+            }
+        }
+        final char[] r = new char[length];
+        for (int i = 0; i < length; i++) {
+            r[i] = (char) b[start + i];
+        }
+        return new String(r);
+    }
+
+    private int u1() {
+        return b[pos++] & 0xFF;
+    }
+
+    private int u2() {
+        final int r = u2(pos);
+        pos += 2;
+        return r;
+    }
+
+    private int u2(int offset) {
+        return ((b[offset] & 0xFF) << 8) | (b[offset + 1] & 0xFF);
+    }
+
+    private int u4() {
+        final int r = ((b[pos] & 0xFF) << 24) | ((b[pos + 1] & 0xFF) << 16) | ((b[pos + 2] & 0xFF) << 8) | (b[pos + 3] & 0xFF);
+        pos += 4;
+        return r;
+    }
+}
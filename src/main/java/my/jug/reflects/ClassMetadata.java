@@ -0,0 +1,945 @@
+package my.jug.reflects;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
+
+/**
+ * <p>Resolved hierarchy and declared members of a {@link Class}, computed once and shared by every {@link Reflects.OnClass}
+ * acting on the same class.</p>
+ *
+ * <p>Instances are obtained with {@link #of(Class)} and are immutable. The hierarchy (super classes and interfaces) is
+ * resolved on creation, reusing the metadata of the parents, while declared members and annotations are resolved lazily on
+ * first access as the JDK clones its arrays on every {@code getDeclaredXxx()} call.</p>
+ *
+ * <p>Metadata is attached to its class with a {@link ClassValue}, for lock-free reads that don't pin the {@link ClassLoader}:
+ * it lives as long as the class does. Derived query results are kept in its {@link #results} slots, bounded by the
+ * {@link ResultCache}.</p>
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+final class ClassMetadata {
+
+    private static volatile Cache cache = new Cache();
+
+    final Class<?> c;
+
+    /**
+     * Super classes, from the direct parent up to {@link Object}.
+     */
+    final ImmutableList<Class<?>> superClasses;
+
+    /**
+     * Interfaces directly implemented (or extended) by the class.
+     */
+    final ImmutableList<Class<?>> interfaces;
+
+    /**
+     * Interfaces implemented (or extended) by the class and their super interfaces, in depth-first order.
+     */
+    final ImmutableList<Class<?>> allInterfaces;
+
+    private volatile ImmutableList<Field> declaredFields;
+    private volatile ImmutableList<Method> declaredMethods;
+    private volatile ImmutableList<Constructor<?>> declaredConstructors;
+    private volatile ImmutableList<Annotation> declaredAnnotations;
+    private final AtomicReferenceArray<ImmutableList<Field>> filteredFields = new AtomicReferenceArray<ImmutableList<Field>>(4);
+    private final AtomicReferenceArray<ImmutableList<Method>> filteredMethods = new AtomicReferenceArray<ImmutableList<Method>>(4);
+    private volatile ImmutableMap<Signature, ImmutableList<Method>> methodChains;
+    private volatile ImmutableMap<String, ImmutableList<Field>> fieldChains;
+    private volatile ImmutableMap<Signature, Method> methodsBySignature;
+    private volatile ImmutableListMultimap<String, Method> methodsByName;
+    private volatile ImmutableList<Method> effectiveMethods;
+    private volatile ImmutableMap<String, Reflects.Property> properties;
+    private volatile Reflects.AnnotationData.Attributes annotationAttributes;
+    private volatile ImmutableSet<Class<? extends Annotation>> annotationClosure;
+    private volatile BitSet annotationClosureBits;
+
+    private final ConcurrentMap<Method, Reflects.MethodInvoker> invokers = new ConcurrentHashMap<Method, Reflects.MethodInvoker>(4, 0.75f, 1);
+
+    private final ConcurrentMap<Constructor<?>, Reflects.Instantiator<?>> instantiators = new ConcurrentHashMap<Constructor<?>, Reflects.Instantiator<?>>(4, 0.75f, 1);
+
+    /**
+     * Copiers from the class to others, keyed by target and whether they include fields, see
+     * {@link #copier(Class, Class, boolean)}.
+     */
+    private final ConcurrentMap<List<Object>, Reflects.Copier<?, ?>> copiersTo = new ConcurrentHashMap<List<Object>, Reflects.Copier<?, ?>>(4, 0.75f, 1);
+
+    /**
+     * Copiers from other classes to the class, keyed by source and whether they include fields.
+     */
+    private final ConcurrentMap<List<Object>, Reflects.Copier<?, ?>> copiersFrom = new ConcurrentHashMap<List<Object>, Reflects.Copier<?, ?>>(4, 0.75f, 1);
+
+    /**
+     * Attribute values of the instances of the class, an annotation type, weakly keyed. Created on first use.
+     */
+    private volatile ConcurrentMap<Annotation, Reflects.AnnotationData> annotationData;
+
+    private final ConcurrentMap<Field, Reflects.FieldAccessor> accessors = new ConcurrentHashMap<Field, Reflects.FieldAccessor>(4, 0.75f, 1);
+
+    /**
+     * Slots of {@link ResultCache}.
+     */
+    final AtomicReferenceArray<ResultCache.Entry> results = new AtomicReferenceArray<ResultCache.Entry>(ResultCache.SLOTS);
+
+    private final ConcurrentMap<AnnotatedElement, BitSet> annotationBits = new ConcurrentHashMap<AnnotatedElement, BitSet>(16, 0.75f, 1);
+
+    private final ConcurrentMap<AnnotatedElement, BitSet> metaAnnotationBits = new ConcurrentHashMap<AnnotatedElement, BitSet>(16, 0.75f, 1);
+
+    /**
+     * Classes whose metadata was resolved from this one's: direct sub-classes, implementations and sub-interfaces, weakly
+     * referenced.
+     */
+    private final Set<Class<?>> subclasses = Collections.newSetFromMap(new MapMaker().weakKeys().concurrencyLevel(1).<Class<?>, Boolean>makeMap());
+
+    private ClassMetadata(Class<?> c) {
+
+        this.c = c;
+
+        final Class<?> parent = c.getSuperclass();
+        if (null == parent) {
+            this.superClasses = ImmutableList.of();
+        } else {
+            final ClassMetadata p = of(parent);
+            p.subclasses.add(c);
+            this.superClasses = ImmutableList.<Class<?>>builder().add(parent).addAll(p.superClasses).build();
+        }
+
+        final Set<Class<?>> all = new LinkedHashSet<Class<?>>();
+        this.interfaces = ImmutableList.<Class<?>>copyOf(c.getInterfaces());
+        for (Class<?> i: interfaces) {
+            final ClassMetadata m = of(i);
+            m.subclasses.add(c);
+            if (all.add(i)) {
+                all.addAll(m.allInterfaces);
+            }
+        }
+        this.allInterfaces = ImmutableList.copyOf(all);
+    }
+
+    /**
+     * Get the metadata of a class, resolving and caching it if necessary.
+     *
+     * @param c
+     * @return
+     */
+    static ClassMetadata of(Class<?> c) {
+        return cache.get(c);
+    }
+
+    /**
+     * @param c
+     * @return {@code true} if the metadata of the class is cached, without resolving it otherwise.
+     */
+    static boolean isCached(Class<?> c) {
+        return cache.resolved.contains(c);
+    }
+
+    /**
+     * Drop the metadata of a class, and of its sub-classes (or implementations) whose metadata was resolved from it,
+     * transitively, along with their {@link ResultCache} results. Metadata not cached is left unresolved.
+     *
+     * @param c
+     */
+    static void invalidate(Class<?> c) {
+        final Cache cache = ClassMetadata.cache;
+        final LinkedList<Class<?>> queue = new LinkedList<Class<?>>();
+        queue.add(c);
+        while (!queue.isEmpty()) {
+            final Class<?> t = queue.removeFirst();
+            if (cache.resolved.remove(t)) {
+                final ClassMetadata m = cache.get(t);
+                cache.remove(t);
+                queue.addAll(m.subclasses);
+                ResultCache.purge(m);
+            }
+        }
+    }
+
+    /**
+     * Drop the metadata of all classes, by replacing the {@link ClassValue}: values of the previous one are released with
+     * it.
+     */
+    static void clear() {
+        cache = new Cache();
+        ResultCache.clear();
+    }
+
+    /**
+     * Metadata of classes, along with the classes it was resolved for, so that {@link #invalidate(Class)} only walks down
+     * to metadata actually cached, rather than resolving it.
+     */
+    private static final class Cache extends ClassValue<ClassMetadata> {
+
+        /**
+         * Classes whose metadata is cached, weakly referenced.
+         */
+        final Set<Class<?>> resolved = Collections.newSetFromMap(new MapMaker().weakKeys().<Class<?>, Boolean>makeMap());
+
+        @Override
+        protected ClassMetadata computeValue(Class<?> c) {
+            final ClassMetadata r = new ClassMetadata(c);
+            resolved.add(c);
+            return r;
+        }
+    }
+
+    ImmutableList<Field> declaredFields() {
+        ImmutableList<Field> r = declaredFields;
+        if (null == r) {
+            declaredFields = r = ImmutableList.copyOf(c.getDeclaredFields());
+        }
+        return r;
+    }
+
+    ImmutableList<Method> declaredMethods() {
+        ImmutableList<Method> r = declaredMethods;
+        if (null == r) {
+            declaredMethods = r = ImmutableList.copyOf(c.getDeclaredMethods());
+        }
+        return r;
+    }
+
+    ImmutableList<Constructor<?>> declaredConstructors() {
+        ImmutableList<Constructor<?>> r = declaredConstructors;
+        if (null == r) {
+            declaredConstructors = r = ImmutableList.<Constructor<?>>copyOf(c.getDeclaredConstructors());
+        }
+        return r;
+    }
+
+    /**
+     * @param parameterTypes
+     * @return The declared constructor of the parameter types, or {@code null} if none.
+     */
+    Constructor<?> declaredConstructor(Class<?>... parameterTypes) {
+        final ImmutableList<Constructor<?>> constructors = declaredConstructors();
+        for (int i = 0; i < constructors.size(); i++) {
+            final Constructor<?> r = constructors.get(i);
+            if (Arrays.equals(parameterTypes, r.getParameterTypes())) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the declared fields filtered by modifiers, as in {@link Reflects.OnClass#onFields(boolean, boolean, boolean, boolean)}.
+     * Filtered once per class, these are the segments query results are assembled from, so that a class shared by many
+     * hierarchies is filtered once.
+     *
+     * @param includeNonPublic
+     * @param includeStatic
+     * @return
+     */
+    ImmutableList<Field> declaredFields(boolean includeNonPublic, boolean includeStatic) {
+        final int i = (includeNonPublic ? 2 : 0) | (includeStatic ? 1 : 0);
+        ImmutableList<Field> r = filteredFields.get(i);
+        if (null == r) {
+            r = ImmutableList.copyOf(Collections2.filter(declaredFields(), Reflects.MemberQuery.of(includeNonPublic, includeStatic)));
+            filteredFields.set(i, r);
+        }
+        return r;
+    }
+
+    /**
+     * Get the declared methods filtered by modifiers.
+     *
+     * @param includeNonPublic
+     * @param includeStatic
+     * @return
+     * @see #declaredFields(boolean, boolean)
+     */
+    ImmutableList<Method> declaredMethods(boolean includeNonPublic, boolean includeStatic) {
+        final int i = (includeNonPublic ? 2 : 0) | (includeStatic ? 1 : 0);
+        ImmutableList<Method> r = filteredMethods.get(i);
+        if (null == r) {
+            r = ImmutableList.copyOf(Collections2.filter(declaredMethods(), Reflects.MemberQuery.of(includeNonPublic, includeStatic)));
+            filteredMethods.set(i, r);
+        }
+        return r;
+    }
+
+    ImmutableList<Annotation> declaredAnnotations() {
+        ImmutableList<Annotation> r = declaredAnnotations;
+        if (null == r) {
+            declaredAnnotations = r = ImmutableList.copyOf(c.getDeclaredAnnotations());
+        }
+        return r;
+    }
+
+    /**
+     * @return {@code true} if {@link #declaredAnnotations()} is resolved already.
+     */
+    boolean isDeclaredAnnotationsResolved() {
+        return null != declaredAnnotations;
+    }
+
+    /**
+     * Get the attributes of the class, an annotation type.
+     *
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    Reflects.AnnotationData.Attributes annotationAttributes() {
+        Reflects.AnnotationData.Attributes r = annotationAttributes;
+        if (null == r) {
+            annotationAttributes = r = new Reflects.AnnotationData.Attributes((Class<? extends Annotation>) c);
+        }
+        return r;
+    }
+
+    /**
+     * Get the invoker of a method declared by the class, creating and caching it if necessary.
+     *
+     * @param m
+     * @return
+     */
+    Reflects.MethodInvoker invoker(Method m) {
+        Reflects.MethodInvoker r = invokers.get(m);
+        if (null == r) {
+            r = new Reflects.MethodInvoker(m);
+            final Reflects.MethodInvoker existing = invokers.putIfAbsent(m, r);
+            if (null != existing) {
+                r = existing;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Get the instantiator of a constructor declared by the class, creating and caching it if necessary.
+     *
+     * @param c
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    <T> Reflects.Instantiator<T> instantiator(Constructor<T> c) {
+        Reflects.Instantiator<?> r = instantiators.get(c);
+        if (null == r) {
+            r = new Reflects.Instantiator<T>(c);
+            final Reflects.Instantiator<?> existing = instantiators.putIfAbsent(c, r);
+            if (null != existing) {
+                r = existing;
+            }
+        }
+        return (Reflects.Instantiator<T>) r;
+    }
+
+    /**
+     * <p>Get the copier from a class to another, creating and caching it if necessary.</p>
+     *
+     * <p>A copier references both classes, so it's cached in the metadata of the one whose class loader sees the other's
+     * (is the same, or a descendant of it), which reaches the other class anyway: a class of a short-lived loader (e.g. of a
+     * plugin) is not pinned by the metadata of a class of a long-lived one. Copiers between classes of unrelated loaders are
+     * not cached.</p>
+     *
+     * @param source
+     * @param target
+     * @param includeFields
+     * @return
+     */
+    static <S, T> Reflects.Copier<S, T> copier(Class<S> source, Class<T> target, boolean includeFields) {
+        if (sees(source, target)) {
+            return copier(of(source).copiersTo, Arrays.<Object>asList(target, includeFields), source, target, includeFields);
+        } else if (sees(target, source)) {
+            return copier(of(target).copiersFrom, Arrays.<Object>asList(source, includeFields), source, target, includeFields);
+        } else {
+            return new Reflects.Copier<S, T>(source, target, includeFields);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S, T> Reflects.Copier<S, T> copier(ConcurrentMap<List<Object>, Reflects.Copier<?, ?>> copiers, List<Object> key, Class<S> source, Class<T> target, boolean includeFields) {
+        Reflects.Copier<?, ?> r = copiers.get(key);
+        if (null == r) {
+            r = new Reflects.Copier<S, T>(source, target, includeFields);
+            final Reflects.Copier<?, ?> existing = copiers.putIfAbsent(key, r);
+            if (null != existing) {
+                r = existing;
+            }
+        }
+        return (Reflects.Copier<S, T>) r;
+    }
+
+    /**
+     * @param c
+     * @param other
+     * @return {@code true} if the loader of the other class is the loader of the class, or one of its ancestors.
+     */
+    static boolean sees(Class<?> c, Class<?> other) {
+        final ClassLoader l = other.getClassLoader();
+        if (null == l) {
+            return true;
+        }
+        for (ClassLoader p = c.getClassLoader(); null != p; p = p.getParent()) {
+            if (p == l) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>Get the attribute values of an instance of the class, an annotation type, extracting and caching them if
+     * necessary.</p>
+     *
+     * <p>Values are cached here rather than in a static map, as they reference the type, hence its loader and the
+     * elements annotated that it loaded, which hold the instances: a static map would keep them all alive. Values that
+     * aren't {@link Reflects.AnnotationData#cacheable cacheable} are not cached.</p>
+     *
+     * @param a
+     * @return
+     */
+    Reflects.AnnotationData annotationData(Annotation a) {
+        ConcurrentMap<Annotation, Reflects.AnnotationData> cache = annotationData;
+        if (null == cache) {
+            annotationData = cache = new MapMaker().weakKeys().concurrencyLevel(1).makeMap();
+        }
+        Reflects.AnnotationData r = cache.get(a);
+        if (null == r) {
+            r = new Reflects.AnnotationData(a);
+            if (r.cacheable) {
+                final Reflects.AnnotationData existing = cache.putIfAbsent(a, r);
+                if (null != existing) {
+                    r = existing;
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Get the accessor of a field declared by the class, creating and caching it if necessary.
+     *
+     * @param f
+     * @return
+     */
+    Reflects.FieldAccessor accessor(Field f) {
+        Reflects.FieldAccessor r = accessors.get(f);
+        if (null == r) {
+            r = new Reflects.FieldAccessor(f);
+            final Reflects.FieldAccessor existing = accessors.putIfAbsent(f, r);
+            if (null != existing) {
+                r = existing;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Get the annotation bits of the class or of a member it declares, computing and caching them if necessary.
+     *
+     * @param e
+     * @return
+     * @see AnnotationBits
+     */
+    BitSet annotationBits(AnnotatedElement e) {
+        BitSet r = annotationBits.get(e);
+        if (null == r) {
+            r = AnnotationBits.compute(e);
+            final BitSet existing = annotationBits.putIfAbsent(e, r);
+            if (null != existing) {
+                r = existing;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Get the meta-annotation bits of the class or of a member it declares, i.e. the bits of the
+     * {@link #annotationClosure() closures} of its annotations, computing and caching them if necessary.
+     *
+     * @param e
+     * @return
+     */
+    BitSet metaAnnotationBits(AnnotatedElement e) {
+        BitSet r = metaAnnotationBits.get(e);
+        if (null == r) {
+            r = new BitSet();
+            for (Annotation a: e.getAnnotations()) {
+                r.or(of(a.annotationType()).annotationClosureBits());
+            }
+            final BitSet existing = metaAnnotationBits.putIfAbsent(e, r);
+            if (null != existing) {
+                r = existing;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Get the class, an annotation type, and its meta-annotation types, transitively, ignoring those of
+     * {@code java.lang.annotation} (e.g. {@link java.lang.annotation.Retention}).
+     *
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    ImmutableSet<Class<? extends Annotation>> annotationClosure() {
+
+        ImmutableSet<Class<? extends Annotation>> r = annotationClosure;
+
+        if (null == r) {
+
+            final Set<Class<? extends Annotation>> closure = new LinkedHashSet<Class<? extends Annotation>>();
+            final LinkedList<Class<? extends Annotation>> queue = new LinkedList<Class<? extends Annotation>>();
+            queue.add((Class<? extends Annotation>) c);
+
+            while (!queue.isEmpty()) {
+                final Class<? extends Annotation> t = queue.removeFirst();
+                if (closure.add(t)) {
+                    for (Annotation meta: of(t).declaredAnnotations()) {
+                        if (!meta.annotationType().getName().startsWith("java.lang.annotation.")) {
+                            queue.add(meta.annotationType());
+                        }
+                    }
+                }
+            }
+
+            annotationClosure = r = ImmutableSet.copyOf(closure);
+        }
+
+        return r;
+    }
+
+    BitSet annotationClosureBits() {
+        BitSet r = annotationClosureBits;
+        if (null == r) {
+            annotationClosureBits = r = AnnotationBits.of(annotationClosure());
+        }
+        return r;
+    }
+
+    /**
+     * <p>Get the chains of overridden methods of the class, keyed by signature. Each chain starts with the most specific
+     * method (declared or inherited by the class), followed by the methods it overrides in super classes and then
+     * interfaces.</p>
+     *
+     * <p>Only overridable (non-private, non-static) methods are included. The chains are built from those of the parents,
+     * so that resolving them for a whole hierarchy walks it once.</p>
+     *
+     * @return
+     */
+    ImmutableMap<Signature, ImmutableList<Method>> methodChains() {
+
+        ImmutableMap<Signature, ImmutableList<Method>> r = methodChains;
+
+        if (null == r) {
+
+            final Map<Signature, Set<Method>> chains = new LinkedHashMap<Signature, Set<Method>>();
+
+            for (Method m: declaredMethods()) {
+                if (overridable(m)) {
+                    chains.put(new Signature(m), newChain(m));
+                }
+            }
+            for (ClassMetadata parent: parents()) {
+                for (Map.Entry<Signature, ImmutableList<Method>> e: parent.methodChains().entrySet()) {
+                    inherit(chains, e.getKey(), e.getValue());
+                }
+            }
+
+            methodChains = r = freeze(chains);
+        }
+
+        return r;
+    }
+
+    /**
+     * Get the chain of methods overridden by the given method (declared by this class), starting with the method itself.
+     *
+     * @param m
+     * @return
+     */
+    ImmutableList<Method> methodChain(Method m) {
+        final ImmutableList<Method> r = overridable(m) ? methodChains().get(new Signature(m)) : null;
+        return null == r ? ImmutableList.of(m) : r;
+    }
+
+    /**
+     * <p>Get the methods of the class, declared or inherited, keyed by signature. Each signature maps to the most specific
+     * method: declared by the class, else inherited from the closest super class, else from an interface.</p>
+     *
+     * <p>Bridge methods are replaced by the methods they bridge to: when the class declares a method with a covariant
+     * return type, or implements a generic method with more specific parameter types, the signature of the bridge maps
+     * to the method declared. Built from the indexes of the parents, like {@link #methodChains()}.</p>
+     *
+     * @return
+     */
+    ImmutableMap<Signature, Method> methodsBySignature() {
+
+        ImmutableMap<Signature, Method> r = methodsBySignature;
+
+        if (null == r) {
+
+            final Map<Signature, Method> index = new LinkedHashMap<Signature, Method>();
+
+            for (Method m: declaredMethods()) {
+                final Signature s = new Signature(m);
+                final Method existing = index.get(s);
+                if (null == existing || existing.isBridge()) {
+                    index.put(s, m);
+                }
+            }
+            for (Map.Entry<Signature, Method> e: index.entrySet()) {
+                if (e.getValue().isBridge()) {
+                    e.setValue(bridged(e.getValue()));
+                }
+            }
+            for (ClassMetadata parent: parents()) {
+                for (Map.Entry<Signature, Method> e: parent.methodsBySignature().entrySet()) {
+                    final Method m = e.getValue();
+                    if (!index.containsKey(e.getKey()) && !Modifier.isPrivate(m.getModifiers()) && inheritable(m)
+                            && !(Modifier.isStatic(m.getModifiers()) && m.getDeclaringClass().isInterface())) {
+                        index.put(e.getKey(), m);
+                    }
+                }
+            }
+
+            methodsBySignature = r = ImmutableMap.copyOf(index);
+        }
+
+        return r;
+    }
+
+    /**
+     * Get the distinct methods of {@link #methodsBySignature()}, keyed by name.
+     *
+     * @return
+     */
+    ImmutableListMultimap<String, Method> methodsByName() {
+        ImmutableListMultimap<String, Method> r = methodsByName;
+        if (null == r) {
+            final ImmutableListMultimap.Builder<String, Method> b = ImmutableListMultimap.builder();
+            for (Method m: new LinkedHashSet<Method>(methodsBySignature().values())) {
+                b.put(m.getName(), m);
+            }
+            methodsByName = r = b.build();
+        }
+        return r;
+    }
+
+    /**
+     * Get the distinct methods of {@link #methodsBySignature()}, in order, excluding bridge and synthetic methods.
+     *
+     * @return
+     */
+    ImmutableList<Method> effectiveMethods() {
+        ImmutableList<Method> r = effectiveMethods;
+        if (null == r) {
+            final Set<Method> methods = new LinkedHashSet<Method>();
+            for (Method m: methodsBySignature().values()) {
+                if (!m.isBridge() && !m.isSynthetic()) {
+                    methods.add(m);
+                }
+            }
+            effectiveMethods = r = ImmutableList.copyOf(methods);
+        }
+        return r;
+    }
+
+    /**
+     * <p>Get the JavaBean properties of the class, keyed by name, in the order of their names (as the order of methods
+     * isn't specified).</p>
+     *
+     * <p>Properties are named after their public instance accessors: getters ({@code getX()}, or {@code isX()} returning
+     * {@code boolean}, preferred) and setters ({@code setX(T)}, the one taking the type of the getter if any). Their field
+     * is the instance field of the same name and type declared by the class or the closest super class, if any.</p>
+     *
+     * @return
+     */
+    ImmutableMap<String, Reflects.Property> properties() {
+
+        ImmutableMap<String, Reflects.Property> r = properties;
+
+        if (null == r) {
+
+            final Map<String, Method> getters = new LinkedHashMap<String, Method>();
+            final Map<String, List<Method>> setters = new LinkedHashMap<String, List<Method>>();
+            final Set<String> names = new TreeSet<String>();
+
+            for (Method m: effectiveMethods()) {
+                if (!Modifier.isPublic(m.getModifiers()) || Modifier.isStatic(m.getModifiers())) {
+                    continue;
+                }
+                final String n = m.getName();
+                final Class<?>[] parameterTypes = m.getParameterTypes();
+                if (0 == parameterTypes.length && n.startsWith("is") && n.length() > 2 && boolean.class == m.getReturnType()) {
+                    final String name = propertyName(n.substring(2));
+                    names.add(name);
+                    getters.put(name, m);
+                } else if (0 == parameterTypes.length && n.startsWith("get") && n.length() > 3 && void.class != m.getReturnType() && !"getClass".equals(n)) {
+                    final String name = propertyName(n.substring(3));
+                    names.add(name);
+                    if (!getters.containsKey(name)) {
+                        getters.put(name, m);
+                    }
+                } else if (1 == parameterTypes.length && n.startsWith("set") && n.length() > 3) {
+                    final String name = propertyName(n.substring(3));
+                    names.add(name);
+                    List<Method> l = setters.get(name);
+                    if (null == l) {
+                        setters.put(name, l = new ArrayList<Method>(1));
+                    }
+                    l.add(m);
+                }
+            }
+
+            final ImmutableMap.Builder<String, Reflects.Property> b = ImmutableMap.builder();
+            for (String name: names) {
+                final Method getter = getters.get(name);
+                final List<Method> candidates = setters.get(name);
+                final Class<?> type = null != getter ? getter.getReturnType() : candidates.get(0).getParameterTypes()[0];
+                Method setter = null;
+                if (null != candidates) {
+                    for (Method m: candidates) {
+                        if (type == m.getParameterTypes()[0]) {
+                            setter = m;
+                            break;
+                        }
+                    }
+                }
+                if (null != getter || null != setter) {
+                    b.put(name, new Reflects.Property(c, name, type, getter, setter, propertyField(name, type)));
+                }
+            }
+
+            properties = r = b.build();
+        }
+
+        return r;
+    }
+
+    private Field propertyField(String name, Class<?> type) {
+        if (c.isInterface()) {
+            return null;
+        }
+        for (int i = -1; i < superClasses.size(); i++) {
+            final ImmutableList<Field> fields = (-1 == i ? this : of(superClasses.get(i))).declaredFields(true, false);
+            for (int j = 0; j < fields.size(); j++) {
+                final Field f = fields.get(j);
+                if (f.getName().equals(name)) {
+                    return type == f.getType() ? f : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param s
+     * @return The name of a property, as in {@link java.beans.Introspector#decapitalize(String)}.
+     */
+    private static String propertyName(String s) {
+        if (s.length() > 1 && Character.isUpperCase(s.charAt(1)) && Character.isUpperCase(s.charAt(0))) {
+            return s;
+        }
+        return Character.toLowerCase(s.charAt(0)) + s.substring(1);
+    }
+
+    /**
+     * Find the method a bridge method (declared by the class) bridges to, i.e. the declared method of the same name whose
+     * parameter and return types are those of the bridge or sub-types of them.
+     *
+     * @param bridge
+     * @return The bridge itself, if not found.
+     */
+    private Method bridged(Method bridge) {
+        final Class<?>[] bridgeParameterTypes = bridge.getParameterTypes();
+        for (Method m: declaredMethods()) {
+            if (!m.isBridge() && m.getName().equals(bridge.getName()) && bridge.getReturnType().isAssignableFrom(m.getReturnType())) {
+                final Class<?>[] parameterTypes = m.getParameterTypes();
+                if (assignable(bridgeParameterTypes, parameterTypes)) {
+                    return m;
+                }
+            }
+        }
+        return bridge;
+    }
+
+    private static boolean assignable(Class<?>[] to, Class<?>[] from) {
+        if (to.length != from.length) {
+            return false;
+        }
+        for (int i = 0; i < to.length; i++) {
+            if (!to[i].isAssignableFrom(from[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the chains of hidden fields of the class, keyed by name. Each chain starts with the most specific field (declared
+     * or inherited by the class), followed by the fields of the same name it hides in super classes and then interfaces.
+     *
+     * @return
+     * @see #methodChains()
+     */
+    ImmutableMap<String, ImmutableList<Field>> fieldChains() {
+
+        ImmutableMap<String, ImmutableList<Field>> r = fieldChains;
+
+        if (null == r) {
+
+            final Map<String, Set<Field>> chains = new LinkedHashMap<String, Set<Field>>();
+
+            for (Field f: declaredFields()) {
+                if (!Modifier.isPrivate(f.getModifiers())) {
+                    chains.put(f.getName(), newChain(f));
+                }
+            }
+            for (ClassMetadata parent: parents()) {
+                for (Map.Entry<String, ImmutableList<Field>> e: parent.fieldChains().entrySet()) {
+                    inherit(chains, e.getKey(), e.getValue());
+                }
+            }
+
+            fieldChains = r = freeze(chains);
+        }
+
+        return r;
+    }
+
+    /**
+     * Get the chain of fields hidden by the given field (declared by this class), starting with the field itself.
+     *
+     * @param f
+     * @return
+     */
+    ImmutableList<Field> fieldChain(Field f) {
+        final ImmutableList<Field> r = Modifier.isPrivate(f.getModifiers()) ? null : fieldChains().get(f.getName());
+        return null == r ? ImmutableList.of(f) : r;
+    }
+
+    private Iterable<ClassMetadata> parents() {
+        final ImmutableList.Builder<ClassMetadata> r = ImmutableList.builder();
+        if (!superClasses.isEmpty()) {
+            r.add(of(superClasses.get(0)));
+        }
+        for (Class<?> i: interfaces) {
+            r.add(of(i));
+        }
+        return r.build();
+    }
+
+    private <K, M extends Member> void inherit(Map<K, Set<M>> chains, K key, ImmutableList<M> chain) {
+        if (inheritable(chain.get(0))) {
+            final Set<M> existing = chains.get(key);
+            if (null != existing) {
+                existing.addAll(chain);
+            } else {
+                chains.put(key, new LinkedHashSet<M>(chain));
+            }
+        }
+    }
+
+    /**
+     * Package-private members are not inherited across packages.
+     */
+    private boolean inheritable(Member m) {
+        final int modifiers = m.getModifiers();
+        return Modifier.isPublic(modifiers) || Modifier.isProtected(modifiers) || samePackage(m.getDeclaringClass(), c);
+    }
+
+    private static boolean overridable(Method m) {
+        return !Modifier.isPrivate(m.getModifiers()) && !Modifier.isStatic(m.getModifiers());
+    }
+
+    private static boolean samePackage(Class<?> a, Class<?> b) {
+        return a.getClassLoader() == b.getClassLoader() && packageOf(a).equals(packageOf(b));
+    }
+
+    private static String packageOf(Class<?> c) {
+        final String name = c.getName();
+        final int i = name.lastIndexOf('.');
+        return i < 0 ? "" : name.substring(0, i);
+    }
+
+    private static <M> Set<M> newChain(M m) {
+        final Set<M> r = new LinkedHashSet<M>();
+        r.add(m);
+        return r;
+    }
+
+    private static <K, M> ImmutableMap<K, ImmutableList<M>> freeze(Map<K, Set<M>> chains) {
+        final ImmutableMap.Builder<K, ImmutableList<M>> r = ImmutableMap.builder();
+        for (Map.Entry<K, Set<M>> e: chains.entrySet()) {
+            r.put(e.getKey(), ImmutableList.copyOf(e.getValue()));
+        }
+        return r.build();
+    }
+
+    /**
+     * Erased method signature, i.e. name and parameter types.
+     */
+    static final class Signature {
+
+        final String name;
+        final Class<?>[] parameterTypes;
+        private final int hash;
+
+        Signature(Method m) {
+            this(m.getName(), m.getParameterTypes());
+        }
+
+        Signature(String name, Class<?>... parameterTypes) {
+            this.name = name;
+            this.parameterTypes = parameterTypes;
+            this.hash = 31 * name.hashCode() + Arrays.hashCode(parameterTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Signature)) {
+                return false;
+            }
+            final Signature that = (Signature) o;
+            return hash == that.hash && name.equals(that.name) && Arrays.equals(parameterTypes, that.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder r = new StringBuilder(name).append('(');
+            for (int i = 0; i < parameterTypes.length; i++) {
+                r.append(i > 0 ? "," : "").append(parameterTypes[i].getName());
+            }
+            return r.append(')').toString();
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package my.jug.reflects;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import my.jug.reflects.Reflects.ClassFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Discovers the class files of packages (and their sub-packages) in the directories and jars of a class loader's class
+ * path, reading them with {@link ClassFileReader} instead of loading them.</p>
+ *
+ * <p>The roots scanned are, in order, the URLs of the {@link URLClassLoader}s in the class loader's hierarchy (parents
+ * first), the {@code java.class.path} entries, and the roots of any other location the class loader resolves the packages
+ * to. When a class is found in several roots, the first one wins, as it would when loading the class.</p>
+ *
+ * <p>Given a {@link ForkJoinPool}, roots are scanned in it, one task per jar and per directory (and sub-directory). The pool
+ * is not shut down. Results are still merged in class path order, so that scanning is deterministic regardless of the
+ * parallelism. The time spent on each root is recorded, see {@link #getScanTimes()}.</p>
+ *
+ * <p>Given the {@link ScanIndex} of a previous scan, roots whose fingerprint (size and last modification) has not changed
+ * are not rescanned. The resulting index is available from {@link #getIndex()}.</p>
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+final class ClassPathScanner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassPathScanner.class);
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final ClassLoader classLoader;
+
+    private final ForkJoinPool pool;
+
+    private final Map<File, Long> elapsed = new ConcurrentHashMap<File, Long>();
+
+    private volatile Map<File, Long> scanTimes = Collections.emptyMap();
+
+    private final List<String> packages;
+
+    /**
+     * Packages as paths, e.g. {@code "com/acme/"}.
+     */
+    private final List<String> paths;
+
+    private final ScanIndex previous;
+
+    private volatile ScanIndex index;
+
+    private volatile boolean modified;
+
+    /**
+     * @param classLoader
+     * @param packages
+     * @param pool Pool scanning the roots, {@code null} to scan them in the calling thread.
+     * @param previous Index of a previous scan of the same packages, if any.
+     */
+    ClassPathScanner(ClassLoader classLoader, List<String> packages, @Nullable ForkJoinPool pool, @Nullable ScanIndex previous) {
+        this.classLoader = classLoader;
+        this.pool = pool;
+        this.packages = packages;
+        this.previous = null != previous && previous.packages.equals(packages) ? previous : null;
+        this.paths = new ArrayList<String>(packages.size());
+        for (String p: packages) {
+            paths.add(p.isEmpty() ? "" : p.replace('.', '/') + '/');
+        }
+    }
+
+    List<ClassFile> scan() throws IOException {
+
+        final List<File> roots = roots();
+        final List<ScanIndex.Root> results = new ArrayList<ScanIndex.Root>(roots.size());
+
+        try {
+            if (null == pool) {
+                for (File root: roots) {
+                    results.add(new RootTask(root, false).compute());
+                }
+            } else {
+                final List<ForkJoinTask<ScanIndex.Root>> tasks = new ArrayList<ForkJoinTask<ScanIndex.Root>>(roots.size());
+                for (File root: roots) {
+                    tasks.add(pool.submit(new RootTask(root, true)));
+                }
+                for (ForkJoinTask<ScanIndex.Root> task: tasks) {
+                    results.add(task.join());
+                }
+            }
+        } catch (RuntimeException e) {
+            for (Throwable t = e; null != t; t = t.getCause()) {
+                if (t instanceof IOException) {
+                    throw (IOException) t;
+                }
+            }
+            throw e;
+        }
+
+        final Map<File, Long> times = new LinkedHashMap<File, Long>();
+        for (File root: roots) {
+            times.put(root, elapsed.remove(root));
+        }
+        scanTimes = Collections.unmodifiableMap(times);
+
+        if (null == previous || !previous.roots.keySet().equals(new LinkedHashSet<File>(roots))) {
+            modified = true;
+        }
+        index = new ScanIndex(packages, results);
+
+        return index.classFiles();
+    }
+
+    /**
+     * @return Index of the last {@link #scan()}.
+     */
+    ScanIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * @return {@code true} if the last {@link #scan()} did not entirely reuse the previous index.
+     */
+    boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Scan a single class path root (a directory or a jar).
+     *
+     * @param root
+     * @param fork Fork a task per sub-directory, in the {@link ForkJoinPool} of the calling task.
+     * @return
+     * @throws IOException
+     */
+    List<ClassFile> scan(File root, boolean fork) throws IOException {
+        final List<ClassFile> r = new ArrayList<ClassFile>();
+        if (root.isDirectory()) {
+            for (String p: paths) {
+                r.addAll(new DirectoryTask(new File(root, p), fork).compute());
+            }
+        } else if (root.isFile()) {
+            scanJar(r, root);
+        }
+        return r;
+    }
+
+    /**
+     * Get the time spent scanning each root by the last {@link #scan()}, in nanoseconds and class path order.
+     *
+     * @return
+     */
+    Map<File, Long> getScanTimes() {
+        return scanTimes;
+    }
+
+    /**
+     * @return Class path roots (directories and jars) to be scanned, in class path order.
+     * @throws IOException
+     */
+    List<File> roots() throws IOException {
+
+        final Set<File> r = new LinkedHashSet<File>();
+
+        final LinkedList<URLClassLoader> loaders = new LinkedList<URLClassLoader>();
+        for (ClassLoader cl = classLoader; null != cl; cl = cl.getParent()) {
+            if (cl instanceof URLClassLoader) {
+                loaders.addFirst((URLClassLoader) cl);
+            }
+        }
+        for (URLClassLoader cl: loaders) {
+            for (URL url: cl.getURLs()) {
+                addRoot(r, toFile(url));
+            }
+        }
+
+        final String classPath = System.getProperty("java.class.path", "");
+        for (String entry: classPath.split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                addRoot(r, new File(entry));
+            }
+        }
+
+        for (String p: paths) {
+            final Enumeration<URL> urls = classLoader.getResources(p);
+            while (urls.hasMoreElements()) {
+                addRoot(r, toRoot(urls.nextElement(), p));
+            }
+        }
+
+        return new ArrayList<File>(r);
+    }
+
+    /**
+     * Get the fingerprint of a root, i.e. the size and last modification of a jar, or the total size of the class files and
+     * the latest modification of the files and directories of the packages in a directory.
+     *
+     * @param root
+     * @return Fingerprint, as a {@link ScanIndex.Root} without class files.
+     */
+    ScanIndex.Root fingerprint(File root) {
+        if (root.isDirectory()) {
+            final long[] r = new long[2];
+            for (String p: paths) {
+                fingerprint(r, new File(root, p));
+            }
+            return new ScanIndex.Root(root, r[0], r[1], null);
+        } else {
+            return new ScanIndex.Root(root, root.length(), root.lastModified(), null);
+        }
+    }
+
+    private static void fingerprint(long[] r, File f) {
+        if (!f.exists()) {
+            return;
+        }
+        r[1] = Math.max(r[1], f.lastModified());
+        if (f.isDirectory()) {
+            final File[] files = f.listFiles();
+            if (null != files) {
+                for (File child: files) {
+                    fingerprint(r, child);
+                }
+            }
+        } else if (isClassFile(f.getName())) {
+            r[0] += f.length();
+        }
+    }
+
+    /**
+     * Scans a root (unless unchanged since the previous index), timing it.
+     */
+    private final class RootTask extends RecursiveTask<ScanIndex.Root> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final File root;
+        private final boolean fork;
+
+        RootTask(File root, boolean fork) {
+            this.root = root;
+            this.fork = fork;
+        }
+
+        @Override
+        protected ScanIndex.Root compute() {
+            final long start = System.nanoTime();
+            try {
+                final ScanIndex.Root fingerprint = fingerprint(root);
+                final ScanIndex.Root indexed = null == previous ? null : previous.roots.get(root);
+                if (null != indexed && indexed.matches(fingerprint)) {
+                    return indexed;
+                }
+                modified = true;
+                return new ScanIndex.Root(root, fingerprint.size, fingerprint.modified, scan(root, fork));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to scan " + root, e);
+            } finally {
+                final long t = System.nanoTime() - start;
+                elapsed.put(root, t);
+                LOGGER.debug("Scanned {} in {}ms", root, t / 1000000);
+            }
+        }
+    }
+
+    /**
+     * Scans a directory, forking a task per sub-directory if scanning in a {@link ForkJoinPool}, see
+     * {@link ClassPathScanner#ClassPathScanner(ClassLoader, List, ForkJoinPool, ScanIndex)}.
+     */
+    private final class DirectoryTask extends RecursiveTask<List<ClassFile>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final File dir;
+        private final boolean fork;
+
+        DirectoryTask(File dir, boolean fork) {
+            this.dir = dir;
+            this.fork = fork;
+        }
+
+        @Override
+        protected List<ClassFile> compute() {
+
+            final File[] files = dir.listFiles();
+            if (null == files) {
+                return Collections.emptyList();
+            }
+            Arrays.sort(files);
+
+            final List<ClassFile> r = new ArrayList<ClassFile>();
+            final List<DirectoryTask> subTasks = new ArrayList<DirectoryTask>();
+
+            try {
+                for (File f: files) {
+                    if (f.isDirectory()) {
+                        final DirectoryTask task = new DirectoryTask(f, fork);
+                        if (fork) {
+                            subTasks.add(task);
+                            task.fork();
+                        } else {
+                            r.addAll(task.compute());
+                        }
+                    } else if (isClassFile(f.getName())) {
+                        final ClassFile c = read(f, Files.toByteArray(f));
+                        if (null != c) {
+                            r.add(c);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to scan " + dir, e);
+            }
+
+            for (DirectoryTask task: subTasks) {
+                r.addAll(task.join());
+            }
+            return r;
+        }
+    }
+
+    private void scanJar(List<ClassFile> out, File file) throws IOException {
+        final JarFile jar = new JarFile(file);
+        try {
+            for (JarEntry e: Collections.list(jar.entries())) {
+                if (!e.isDirectory() && isClassFile(e.getName()) && inPackages(e.getName())) {
+                    final InputStream in = jar.getInputStream(e);
+                    try {
+                        final ClassFile c = read(file + "!/" + e.getName(), ByteStreams.toByteArray(in));
+                        if (null != c) {
+                            out.add(c);
+                        }
+                    } finally {
+                        in.close();
+                    }
+                }
+            }
+        } finally {
+            jar.close();
+        }
+    }
+
+    /**
+     * Read a class file, skipping it (as loading would fail) if it's not valid, or of a format not supported.
+     *
+     * @param location
+     * @param b
+     * @return {@code null} if skipped.
+     */
+    private static ClassFile read(Object location, byte[] b) {
+        try {
+            return ClassFileReader.read(b);
+        } catch (IOException e) {
+            LOGGER.warn("Skipping unreadable class file {}: {}", location, e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean inPackages(String entry) {
+        for (String p: paths) {
+            if (entry.startsWith(p)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isClassFile(String name) {
+        return name.endsWith(CLASS_SUFFIX) && !name.endsWith("module-info.class") && !name.endsWith("package-info.class");
+    }
+
+    private static void addRoot(Set<File> roots, File f) throws IOException {
+        if (null != f && f.exists()) {
+            roots.add(f.getCanonicalFile());
+        }
+    }
+
+    /**
+     * Get the class path root of a package resource, e.g. {@code /lib/acme.jar} for
+     * {@code jar:file:/lib/acme.jar!/com/acme/}, or {@code /classes} for {@code file:/classes/com/acme/}.
+     */
+    private static File toRoot(URL url, String path) {
+        if ("jar".equals(url.getProtocol())) {
+            final String s = url.getPath();
+            final int i = s.indexOf("!/");
+            try {
+                return toFile(new URL(i < 0 ? s : s.substring(0, i)));
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        final File f = toFile(url);
+        if (null == f) {
+            return null;
+        }
+        File r = f;
+        for (String segment: path.split("/")) {
+            if (null != r && !segment.isEmpty()) {
+                r = r.getParentFile();
+            }
+        }
+        return r;
+    }
+
+    private static File toFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException e) {
+            return new File(url.getPath());
+        } catch (IllegalArgumentException e) {
+            return new File(url.getPath());
+        }
+    }
+}
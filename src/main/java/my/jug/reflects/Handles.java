@@ -0,0 +1,197 @@
+package my.jug.reflects;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+
+/**
+ * <p>Factory of {@link MethodHandle}s for reflection objects, regardless of their accessibility.</p>
+ *
+ * <p>Non-public members are made accessible on a copy of the reflection object, so that the instances handed out by
+ * {@link Reflects} are not altered.</p>
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+final class Handles {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodHandle WRAP;
+
+    static {
+        try {
+            WRAP = LOOKUP.findStatic(Handles.class, "wrap", MethodType.methodType(Object.class, Throwable.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Handles() {}
+
+    /**
+     * @param m
+     * @return Handle of the method, typed as declared, i.e. {@code (D, P...)R} for an instance method of {@code D}, or
+     * {@code (P...)R} for a static method.
+     * @throws IllegalArgumentException If the method can't be made accessible.
+     */
+    static MethodHandle unreflect(Method m) {
+        try {
+            return LOOKUP.unreflect(m);
+        } catch (IllegalAccessException e) {
+            try {
+                return LOOKUP.unreflect(accessible(m.getDeclaringClass().getDeclaredMethod(m.getName(), m.getParameterTypes())));
+            } catch (Exception x) {
+                throw new IllegalArgumentException("Unable to access " + m, x);
+            }
+        }
+    }
+
+    /**
+     * @param c
+     * @return Handle of the constructor, typed as declared, i.e. {@code (P...)D} for a constructor of {@code D}.
+     * @throws IllegalArgumentException If the constructor can't be made accessible, or its class is abstract.
+     */
+    static MethodHandle unreflectConstructor(Constructor<?> c) {
+        try {
+            return LOOKUP.unreflectConstructor(c);
+        } catch (IllegalAccessException e) {
+            try {
+                return LOOKUP.unreflectConstructor(accessible(c.getDeclaringClass().getDeclaredConstructor(c.getParameterTypes())));
+            } catch (Exception x) {
+                throw new IllegalArgumentException("Unable to access " + c, x);
+            }
+        }
+    }
+
+    /**
+     * @param f
+     * @return Getter of the field, typed as declared, i.e. {@code (D)T} for an instance field of {@code D}, or
+     * {@code ()T} for a static field.
+     * @throws IllegalArgumentException If the field can't be made accessible.
+     */
+    static MethodHandle unreflectGetter(Field f) {
+        try {
+            return LOOKUP.unreflectGetter(f);
+        } catch (IllegalAccessException e) {
+            try {
+                return LOOKUP.unreflectGetter(accessible(f.getDeclaringClass().getDeclaredField(f.getName())));
+            } catch (Exception x) {
+                throw new IllegalArgumentException("Unable to access " + f, x);
+            }
+        }
+    }
+
+    /**
+     * @param f
+     * @return Setter of the field, typed as declared, i.e. {@code (D, T)void} for an instance field of {@code D}, or
+     * {@code (T)void} for a static field.
+     * @throws IllegalArgumentException If the field can't be made accessible, or is {@code static final}.
+     */
+    static MethodHandle unreflectSetter(Field f) {
+        try {
+            return LOOKUP.unreflectSetter(f);
+        } catch (IllegalAccessException e) {
+            try {
+                return LOOKUP.unreflectSetter(accessible(f.getDeclaringClass().getDeclaredField(f.getName())));
+            } catch (Exception x) {
+                throw new IllegalArgumentException("Unable to access " + f, x);
+            }
+        }
+    }
+
+    /**
+     * Adapt a handle typed as declared to {@code (Object, Object...)Object} (with as many {@code Object} parameters as the
+     * member has), the first parameter being the target instance, ignored for static members.
+     *
+     * @param h
+     * @param isStatic
+     * @return
+     */
+    static MethodHandle generic(MethodHandle h, boolean isStatic) {
+        final MethodHandle r = isStatic ? MethodHandles.dropArguments(h, 0, Object.class) : h;
+        return r.asType(MethodType.genericMethodType(r.type().parameterCount()));
+    }
+
+    /**
+     * @param m A field or method.
+     * @return Copy of the field or method, made accessible if possible, for reflective access where no handle could be
+     * created.
+     */
+    static AccessibleObject accessibleCopy(Member m) {
+        final AccessibleObject r;
+        try {
+            r = m instanceof Field ? m.getDeclaringClass().getDeclaredField(m.getName())
+                    : m.getDeclaringClass().getDeclaredMethod(m.getName(), ((Method) m).getParameterTypes());
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            r.setAccessible(true);
+        } catch (SecurityException ignored) {
+            // Public members are accessible anyway
+        }
+        return r;
+    }
+
+    /**
+     * <p>Make a handle typed as declared wrap whatever it throws in a {@link TargetException}, so that once adapted (e.g. by
+     * {@link #generic(MethodHandle, boolean)}), exceptions thrown by the member can be told from failures to adapt the
+     * arguments to it (e.g. a {@link ClassCastException}).</p>
+     *
+     * <p>The guard is built on the {@link MethodType#erase() erased} handle, reference types replaced by {@code Object},
+     * and adapted back to the type of {@code h}: building it adapts handles shared by the JDK to its type, and these keep
+     * the last type adapted to, which would pin the loader of the member's classes.</p>
+     *
+     * @param h
+     * @return
+     */
+    static MethodHandle guard(MethodHandle h) {
+        final MethodHandle erased = h.asType(h.type().erase());
+        return MethodHandles.catchException(erased, Throwable.class, WRAP.asType(MethodType.methodType(erased.type().returnType(), Throwable.class)))
+                .asType(h.type());
+    }
+
+    @SuppressWarnings("unused")
+    private static Object wrap(Throwable t) {
+        throw new TargetException(t);
+    }
+
+    /**
+     * @param member
+     * @param t Failure of a {@link #guard(MethodHandle) guarded} handle, other than a {@link TargetException}.
+     * @return {@link IllegalArgumentException} to be thrown, as by {@link Method#invoke(Object, Object...)} for arguments
+     * (or targets) of the wrong type.
+     */
+    static IllegalArgumentException illegalArguments(Object member, Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalArgumentException("Wrong arguments for " + member + ": " + t, t);
+    }
+
+    /**
+     * Exception thrown by the member of a {@link #guard(MethodHandle) guarded} handle, its cause.
+     */
+    static final class TargetException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        TargetException(Throwable cause) {
+            super(null, cause, false, false);
+        }
+    }
+
+    private static <A extends AccessibleObject> A accessible(A a) {
+        a.setAccessible(true);
+        return a;
+    }
+}
@@ -0,0 +1,175 @@
+package my.jug.reflects;
+
+import java.util.regex.Pattern;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * <p>Matches names (of classes, members and annotations) against a regular expression, the way
+ * {@link String#matches(String)} does, without compiling the expression on every test.</p>
+ *
+ * <p>Expressions which are literals (e.g. {@code "getName"}), or literals prefixed and/or suffixed with {@code ".*"} (e.g.
+ * {@code "get.*"}, {@code ".*\\$Annotation"}) are matched with {@link String#equals(Object)},
+ * {@link String#startsWith(String)}, {@link String#endsWith(String)} or {@link String#contains(CharSequence)}. Any other
+ * expression is compiled into a {@link Pattern}, and matchers of {@link #of(String) string expressions} are kept in a
+ * bounded cache.</p>
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+abstract class NameMatcher {
+
+    private static final int CACHE_SIZE = 512;
+
+    private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private static final Cache<String, NameMatcher> CACHE = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build(new CacheLoader<String, NameMatcher>() {
+        @Override public NameMatcher load(String regex) {
+            final NameMatcher r = literal(regex);
+            return null != r ? r : new RegexMatcher(Pattern.compile(regex));
+        }
+    });
+
+    abstract boolean matches(String name);
+
+    /**
+     * @param regex
+     * @return
+     * @throws java.util.regex.PatternSyntaxException If the expression's syntax is invalid.
+     */
+    static NameMatcher of(String regex) {
+        try {
+            return CACHE.getUnchecked(regex);
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    static NameMatcher of(Pattern pattern) {
+        final NameMatcher r = 0 == pattern.flags() ? literal(pattern.pattern()) : null;
+        return null != r ? r : new RegexMatcher(pattern);
+    }
+
+    /**
+     * Get a matcher not relying on regular expression for the given expression, if it is a literal optionally prefixed and/or
+     * suffixed with {@code ".*"}.
+     *
+     * @param regex
+     * @return {@code null} if the expression is not supported.
+     */
+    static NameMatcher literal(String regex) {
+
+        final int length = regex.length();
+        final StringBuilder literal = new StringBuilder(length);
+
+        boolean leading = false;
+        boolean trailing = false;
+
+        for (int i = 0; i < length; i++) {
+
+            final char ch = regex.charAt(i);
+
+            if (trailing) {
+                return null;
+            } else if ('.' == ch && i + 1 < length && '*' == regex.charAt(i + 1)) {
+                if (0 == i) {
+                    leading = true;
+                } else {
+                    trailing = true;
+                }
+                i++;
+            } else if ('\\' == ch) {
+                if (i + 1 == length || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    return null;
+                }
+                literal.append(regex.charAt(++i));
+            } else if (META_CHARACTERS.indexOf(ch) >= 0) {
+                return null;
+            } else {
+                literal.append(ch);
+            }
+        }
+
+        final String s = literal.toString();
+
+        if (leading && trailing) {
+            return new ContainsMatcher(s);
+        } else if (leading) {
+            return new SuffixMatcher(s);
+        } else if (trailing) {
+            return new PrefixMatcher(s);
+        } else {
+            return new ExactMatcher(s);
+        }
+    }
+
+    private static final class ExactMatcher extends NameMatcher {
+
+        private final String s;
+
+        ExactMatcher(String s) {
+            this.s = s;
+        }
+
+        @Override boolean matches(String name) {
+            return s.equals(name);
+        }
+    }
+
+    private static final class PrefixMatcher extends NameMatcher {
+
+        private final String s;
+
+        PrefixMatcher(String s) {
+            this.s = s;
+        }
+
+        @Override boolean matches(String name) {
+            return name.startsWith(s);
+        }
+    }
+
+    private static final class SuffixMatcher extends NameMatcher {
+
+        private final String s;
+
+        SuffixMatcher(String s) {
+            this.s = s;
+        }
+
+        @Override boolean matches(String name) {
+            return name.endsWith(s);
+        }
+    }
+
+    private static final class ContainsMatcher extends NameMatcher {
+
+        private final String s;
+
+        ContainsMatcher(String s) {
+            this.s = s;
+        }
+
+        @Override boolean matches(String name) {
+            return name.contains(s);
+        }
+    }
+
+    private static final class RegexMatcher extends NameMatcher {
+
+        private final Pattern pattern;
+
+        RegexMatcher(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override boolean matches(String name) {
+            return pattern.matcher(name).matches();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package my.jug.reflects;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import com.google.common.base.Function;
+
+/**
+ * <p>Ordered, parallel expansion of a list, e.g. of classes into their members, in a {@link ForkJoinPool}.</p>
+ *
+ * <p>The list is split in halves until slices of {@link #SLICE} elements, which are expanded in parallel and concatenated
+ * in the order of the list, so that results are identical to a serial expansion's.</p>
+ *
+ * <p>Tasks run in the given pool, by default the {@link #pool() shared pool}, whose parallelism is the number of available
+ * processors. It's created on first use and never shut down, its threads being daemons.</p>
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+final class Parallel {
+
+    /**
+     * Number of elements expanded by a single task. Resolving the members of a class takes in the order of a microsecond
+     * once cached, less elements wouldn't pay for the forking.
+     */
+    static final int SLICE = 16;
+
+    private Parallel() {}
+
+    /**
+     * @return The pool shared by parallel operations, unless given another.
+     */
+    static ForkJoinPool pool() {
+        return SharedPool.POOL;
+    }
+
+    /**
+     * @param elements
+     * @param f
+     * @param pool Pool to expand the elements in, {@code null} to expand them in the calling thread.
+     * @param <I>
+     * @param <O>
+     * @return The expansions of the elements, concatenated in order.
+     */
+    static <I, O> List<O> expand(List<? extends I> elements, Function<? super I, ? extends List<? extends O>> f, @Nullable ForkJoinPool pool) {
+
+        final ExpandTask<I, O> task = new ExpandTask<I, O>(elements, 0, elements.size(), f);
+
+        if (null == pool || elements.size() <= SLICE) {
+            return task.compute();
+        } else if (pool == ForkJoinTask.getPool()) {
+            return task.invoke();
+        } else {
+            return pool.invoke(task);
+        }
+    }
+
+    /**
+     * Holder of the shared pool, created on first use.
+     */
+    private static final class SharedPool {
+        static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    private static final class ExpandTask<I, O> extends RecursiveTask<List<O>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends I> elements;
+        private final int from;
+        private final int to;
+        private final Function<? super I, ? extends List<? extends O>> f;
+
+        ExpandTask(List<? extends I> elements, int from, int to, Function<? super I, ? extends List<? extends O>> f) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+            this.f = f;
+        }
+
+        @Override
+        protected List<O> compute() {
+
+            if (to - from > SLICE) {
+                final int middle = (from + to) >>> 1;
+                final ExpandTask<I, O> right = new ExpandTask<I, O>(elements, middle, to, f);
+                right.fork();
+                final List<O> r = new ExpandTask<I, O>(elements, from, middle, f).compute();
+                r.addAll(right.join());
+                return r;
+            }
+
+            final List<O> r = new ArrayList<O>();
+            for (int i = from; i < to; i++) {
+                r.addAll(f.apply(elements.get(i)));
+            }
+            return r;
+        }
+    }
+}
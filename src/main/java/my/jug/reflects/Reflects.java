@@ -1,5 +1,6 @@
 package my.jug.reflects;
 
+import static com.google.common.base.Predicates.alwaysTrue;
 import static com.google.common.base.Predicates.and;
 import static com.google.common.base.Predicates.not;
 import static java.lang.reflect.Modifier.isPublic;
@@ -8,15 +9,36 @@ import static java.util.Arrays.asList;
 import static my.jug.reflects.Reflects.Predicates.*;
 
 import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 /**
  * <p>Reflection utility class, to traverse, filter and trasnform reflection objects.</p>
@@ -28,14 +50,41 @@ import com.google.common.collect.Collections2;
  *     <dd>Inception of project. See {@link #onMethod(java.lang.reflect.Method)} and {@link #onMethods(java.lang.reflect.Method...)}.</dd>
  *     <dt>2012-02-25</dt>
  *     <dd>Add support for fields (identical with how methods are handled). See {@link #onField(java.lang.reflect.Field)} and {@link #onFields(java.lang.reflect.Field...)}.</dd>
+ *     <dt>2026-10-16</dt>
+ *     <dd>Cache class hierarchy, declared members and annotations, see {@link #invalidate(Class)} and {@link #clearCache()}.</dd>
+ *     <dd>Inherited annotations of a method (or field) are now those of the methods it overrides (or fields it hides) only.</dd>
+ *     <dd>Accept precompiled {@link Pattern} in name filters and predicates, and match simple expressions without regular expression.</dd>
+ *     <dd>Implement packages support, scanning class files rather than loading classes. See {@link #onPackage(String)} and {@link #onPackages(String...)}.</dd>
+ *     <dd>Scan packages in parallel, see {@link OnPackages#parallel()}. Requires Java 7.</dd>
+ *     <dd>Persist package scans in an index, see {@link OnPackages#withIndex(File)} and {@link OnPackages#withIndexResource(String)}.</dd>
+ *     <dd>Index classes, methods and fields by annotation (and meta-annotation), see {@link AnnotationIndex}.</dd>
+ *     <dd>Invoke methods through cached {@link MethodHandle}s, see {@link OnMethod#invoker()}.</dd>
+ *     <dd>Get and set fields through cached {@link MethodHandle}s, without boxing primitives, see {@link OnField#accessor()}.</dd>
+ *     <dd>Lazy queries, executed in a single pass on terminal operations, see {@link Query} and {@link OnClass#queryMethods()}.</dd>
+ *     <dd>Resolve the members of many classes in parallel, see {@link OnClasses#parallel()}.</dd>
+ *     <dd>Filter methods and fields with compiled queries, see {@link MemberQuery}.</dd>
+ *     <dd>Look methods up by signature and name, see {@link OnClass#method(String, Class[])} and {@link OnClass#methodsNamed(String)}.</dd>
+ *     <dd>Act on the most specific method per signature only, see {@link OnClass#onEffectiveMethods()}.</dd>
+ *     <dd>Collections ({@link OnClasses}, {@link OnFields}, {@link OnMethods}, {@link OnAnnotations}) are now immutable, and safe to share across threads. They reject {@code null} elements.</dd>
+ *     <dd>Attach metadata to classes with a {@link ClassValue}, and cache the most recently used query results, see {@link #getCacheStats()}.</dd>
+ *     <dd>Report operations to a {@link Listener}, see {@link #setListener(Listener)} and {@link Slf4jListener}.</dd>
+ *     <dd>Read annotation values once, without going through their proxies, see {@link OnAnnotations#values()}.</dd>
+ *     <dd>Filter by annotation through meta-annotations, see {@link Predicates#classMetaAnnotatedWith(Class)}.</dd>
+ *     <dd>Resolve the members declared by a class once for all the hierarchies it's part of, see {@link OnClasses}.</dd>
+ *     <dd>Visit members and annotations without allocating, see {@link OnClass#visitMethods(Visitor)}.</dd>
+ *     <dd>Add support for constructors, and instantiate classes through cached {@link MethodHandle}s. See {@link OnClass#onConstructors()} and {@link OnConstructor#instantiator()}.</dd>
+ *     <dd>Add support for JavaBean properties, resolved once per class, see {@link OnClass#onProperties()} and {@link Property}.</dd>
+ *     <dd>Copy properties (and fields) between classes through a chain of {@link MethodHandle}s, see {@link #copier(Class, Class, boolean)}.</dd>
  * </dl>
  *
  * @author yclian
  * @since 1.0.20111103
- * @version 1.0.20120225
+ * @version 1.0.20261016
  */
 public abstract class Reflects {
 
+    private static volatile Listener listener = Listener.NONE;
+
     protected Reflects() {}
 
     private static interface HasFields {
@@ -59,10 +108,19 @@ public abstract class Reflects {
         OnAnnotations onAnnotations(boolean includeInherited);
     }
 
+    /**
+     * <p>Collection of reflection objects. Collections are immutable, and so are the lists returned by {@link #get()},
+     * {@link #filter(Predicate)} and {@link #transform(Function)}, so that they can be cached (e.g. in static fields) and
+     * shared across threads without copying.</p>
+     *
+     * <p>Collections copy their elements on creation, and reject {@code null} ones with a {@link NullPointerException}.</p>
+     *
+     * @param <E>
+     */
     private static interface OnCollection<E> {
 
         /**
-         * Get the target elements.
+         * Get the target elements, as an immutable list.
          *
          * @return
          */
@@ -82,6 +140,13 @@ public abstract class Reflects {
          */
         List<E> filter(final String regex);
 
+        /**
+         * @see Collections2#filter(java.util.Collection, com.google.common.base.Predicate)
+         * @param pattern
+         * @return
+         */
+        List<E> filter(final Pattern pattern);
+
         /**
          * @see Collections2#filter(java.util.Collection, com.google.common.base.Predicate)
          * @param predicate
@@ -93,9 +158,16 @@ public abstract class Reflects {
          * @see Collections2#transform(java.util.Collection, com.google.common.base.Function)
          * @param f
          * @param <O>
-         * @return
+         * @return An unmodifiable list of the elements transformed, which may be {@code null}.
          */
         <O> List<O> transform(final Function<? super E, O> f);
+
+        /**
+         * Start a lazy {@link Query} on the target elements.
+         *
+         * @return
+         */
+        Query<E> query();
     }
 
     private static interface AnnotatableCollection<E> extends OnCollection<E> {
@@ -108,24 +180,345 @@ public abstract class Reflects {
          * @return
          */
         List<E> filter(final Class<? extends Annotation> a);
+
+        /**
+         * Return a list of annotatable objects annotated with the specified annotation, directly or through
+         * meta-annotations.
+         *
+         * @see Predicates#classMetaAnnotatedWith(Class)
+         * @param a
+         * @return
+         */
+        List<E> filterMetaAnnotated(Class<? extends Annotation> a);
+    }
+
+    /**
+     * @see OnPackages
+     */
+    public static class OnPackage extends OnPackages {
+
+        OnPackage(ClassLoader classLoader, String pkg) {
+            super(classLoader, asList(pkg), null, null, null);
+        }
     }
 
     /**
-     * TODO
+     * <p>Act on the classes of packages and their sub-packages.</p>
+     *
+     * <p>Classes are discovered by reading the class files in the directories and jars of the class path, as {@link ClassFile}
+     * descriptors, rather than by loading them. Only the classes whose descriptor matches a predicate are then loaded (without
+     * being initialized), see {@link #onClasses(Predicate)}. The class path is scanned once per instance, on first use.</p>
+     *
+     * <p>Large class paths can be scanned in {@link #parallel() parallel}, jars and directories being split across threads.
+     * Results are identical to a serial scan's, and the time spent on each root is reported by
+     * {@link #getScanTimes(TimeUnit)}.</p>
+     *
+     * <p>Scans can be skipped on subsequent starts by keeping an index of the class path in a file, see
+     * {@link #withIndex(File)}, or entirely by shipping an index generated at build time (with {@link #writeIndex(File)}) as
+     * a class path resource, see {@link #withIndexResource(String)}.</p>
      */
-    public static class OnPackage {}
+    public static class OnPackages {
+
+        private final ClassLoader classLoader;
+
+        private final List<String> packages;
+
+        private final ForkJoinPool pool;
+
+        private final File indexFile;
+
+        private final String indexResource;
+
+        private volatile List<ClassFile> classFiles;
+
+        private volatile Map<File, Long> scanTimes;
+
+        private volatile ScanIndex index;
+
+        OnPackages(ClassLoader classLoader, List<String> packages, @Nullable ForkJoinPool pool, @Nullable File indexFile, @Nullable String indexResource) {
+            this.classLoader = classLoader;
+            this.packages = packages;
+            this.pool = pool;
+            this.indexFile = indexFile;
+            this.indexResource = indexResource;
+        }
+
+        /**
+         * Scan in parallel, in a pool shared by parallel operations, of as many threads as available processors.
+         *
+         * @return
+         */
+        public OnPackages parallel() {
+            return parallel(Parallel.pool());
+        }
+
+        /**
+         * Scan in parallel, in the given pool.
+         *
+         * @param pool
+         * @return
+         */
+        public OnPackages parallel(ForkJoinPool pool) {
+            return new OnPackages(classLoader, packages, pool, indexFile, indexResource);
+        }
+
+        /**
+         * <p>Keep an index of the scan in a file. If the file exists and was written for the same packages, only the class
+         * path roots whose size or last modification changed since are scanned, and the file is updated.</p>
+         *
+         * <p>Directories are fingerprinted by the size and modification of their files, which still requires them to be
+         * listed, but not read.</p>
+         *
+         * @param file
+         * @return
+         */
+        public OnPackages withIndex(File file) {
+            return new OnPackages(classLoader, packages, pool, file, indexResource);
+        }
+
+        /**
+         * Use the index found as a class path resource (e.g. written by {@link #writeIndex(File)} at build time) rather than
+         * scanning, if it covers the packages. The index is trusted as is, its roots are not checked for changes.
+         *
+         * @param resource Name of the resource, as in {@link ClassLoader#getResource(String)}.
+         * @return
+         */
+        public OnPackages withIndexResource(String resource) {
+            return new OnPackages(classLoader, packages, pool, indexFile, resource);
+        }
+
+        /**
+         * Write the index of the scan to a file, scanning if not done yet.
+         *
+         * @param file
+         * @throws IOException
+         * @see #withIndex(File)
+         * @see #withIndexResource(String)
+         */
+        public void writeIndex(File file) throws IOException {
+            onClassFiles();
+            index.write(file);
+        }
+
+        /**
+         * Get the target package names.
+         *
+         * @return
+         */
+        public List<String> get() {
+            return packages;
+        }
+
+        /**
+         * Get the descriptors of the classes found in the packages, in class path order.
+         *
+         * @return
+         */
+        public List<ClassFile> onClassFiles() {
+            List<ClassFile> r = classFiles;
+            if (null == r) {
+                synchronized (this) {
+                    r = classFiles;
+                    if (null == r) {
+                        try {
+                            classFiles = r = ImmutableList.copyOf(scan());
+                        } catch (IOException e) {
+                            throw Throwables.propagate(e);
+                        }
+                    }
+                }
+            }
+            return r;
+        }
+
+        private List<ClassFile> scan() throws IOException {
+
+            if (null != indexResource) {
+                final InputStream in = classLoader.getResourceAsStream(indexResource);
+                if (null != in) {
+                    final ScanIndex resourceIndex;
+                    try {
+                        resourceIndex = ScanIndex.read(in);
+                    } finally {
+                        in.close();
+                    }
+                    final List<ClassFile> r = resourceIndex.classFiles(packages);
+                    if (null != r) {
+                        scanTimes = Collections.emptyMap();
+                        index = resourceIndex;
+                        return r;
+                    }
+                }
+            }
+
+            final ScanIndex previous = null != indexFile ? ScanIndex.readIfValid(indexFile) : null;
+            final ClassPathScanner scanner = new ClassPathScanner(classLoader, packages, pool, previous);
+            final List<ClassFile> r = scanner.scan();
+
+            scanTimes = scanner.getScanTimes();
+            index = scanner.getIndex();
+            if (null != indexFile && scanner.isModified()) {
+                index.write(indexFile);
+            }
+
+            return r;
+        }
+
+        /**
+         * Get the time spent scanning each class path root (directory or jar), in class path order. Scans if not done yet.
+         *
+         * @param unit
+         * @return
+         */
+        public Map<File, Long> getScanTimes(TimeUnit unit) {
+            onClassFiles();
+            final Map<File, Long> r = new LinkedHashMap<File, Long>();
+            for (Map.Entry<File, Long> e: scanTimes.entrySet()) {
+                r.put(e.getKey(), unit.convert(e.getValue(), TimeUnit.NANOSECONDS));
+            }
+            return r;
+        }
+
+        public OnClasses onClasses() {
+            return onClasses(alwaysTrue());
+        }
+
+        /**
+         * Act on the classes annotated with the specified annotation.
+         *
+         * @param a
+         * @return
+         */
+        public OnClasses onClasses(Class<? extends Annotation> a) {
+            return onClasses(classFileAnnotatedWith(a));
+        }
+
+        /**
+         * Act on the classes of the class files matching the predicate, loading them.
+         *
+         * @param predicate
+         * @return
+         */
+        public OnClasses onClasses(Predicate<? super ClassFile> predicate) {
+            final List<Class<?>> r = new ArrayList<Class<?>>();
+            for (ClassFile f: onClassFiles()) {
+                if (predicate.apply(f)) {
+                    r.add(load(f));
+                }
+            }
+            return Reflects.onClasses(r);
+        }
+
+        /**
+         * Index the classes by annotation, only loading those carrying annotations (or having members that do).
+         *
+         * @return
+         * @see OnClasses#indexAnnotations()
+         */
+        public AnnotationIndex indexAnnotations() {
+            return onClasses(classFileAnnotated()).indexAnnotations();
+        }
+
+        private Class<?> load(ClassFile f) {
+            try {
+                return Class.forName(f.getName(), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                throw Throwables.propagate(e);
+            }
+        }
+    }
 
     /**
-     * TODO
+     * <p>Descriptor of a class read from its class file, without loading it.</p>
+     *
+     * @see OnPackages
      */
-    public static class OnPackages {}
+    public static final class ClassFile {
+
+        private final String name;
+        private final int modifiers;
+        private final String superName;
+        private final List<String> interfaceNames;
+        private final Set<String> annotationNames;
+        private final Set<String> memberAnnotationNames;
+
+        ClassFile(String name, int modifiers, @Nullable String superName, Collection<String> interfaceNames, Collection<String> annotationNames, Collection<String> memberAnnotationNames) {
+            this.name = name;
+            this.modifiers = modifiers;
+            this.superName = superName;
+            this.interfaceNames = ImmutableList.copyOf(interfaceNames);
+            this.annotationNames = ImmutableSet.copyOf(annotationNames);
+            this.memberAnnotationNames = ImmutableSet.copyOf(memberAnnotationNames);
+        }
+
+        /**
+         * @return Binary name of the class, as in {@link Class#getName()}.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return Access flags of the class file, see {@link java.lang.reflect.Modifier}. Nested classes are flagged as
+         * declared by their outer class file, e.g. never {@code private} or {@code static}.
+         */
+        public int getModifiers() {
+            return modifiers;
+        }
+
+        public boolean isInterface() {
+            return 0 != (modifiers & 0x0200);
+        }
+
+        public boolean isAnnotation() {
+            return 0 != (modifiers & 0x2000);
+        }
+
+        /**
+         * @return Name of the super class, {@code null} for {@link Object} (and {@code module-info}).
+         */
+        @Nullable
+        public String getSuperName() {
+            return superName;
+        }
+
+        public List<String> getInterfaceNames() {
+            return interfaceNames;
+        }
+
+        /**
+         * @return Names of the runtime visible annotations of the class.
+         */
+        public Set<String> getAnnotationNames() {
+            return annotationNames;
+        }
+
+        /**
+         * @return Names of the runtime visible annotations of the fields and methods declared by the class.
+         */
+        public Set<String> getMemberAnnotationNames() {
+            return memberAnnotationNames;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
 
     public static class OnClass implements HasFields, HasMethods, HasAnnotations {
 
+        private static final Function<Class<?>, List<Annotation>> DECLARED_ANNOTATIONS = new Function<Class<?>, List<Annotation>>() { @Override public List<Annotation> apply(@Nullable Class<?> c) {
+            return ClassMetadata.of(c).declaredAnnotations();
+        }};
+
         private Class<?> c;
 
+        private ClassMetadata metadata;
+
         OnClass(Class c) {
             this.c = c;
+            this.metadata = ClassMetadata.of(c);
         }
 
         public OnClasses onClasses() {
@@ -177,158 +570,358 @@ public abstract class Reflects {
         }
         
         public OnFields onFields(boolean includeInherited, boolean includeNonPublic, boolean includeStatic, boolean includeInterfaces) {
-            
-            Set<Field> fields = new LinkedHashSet<Field>();
-
-            if (!c.isInterface()) {
-                if (includeInherited) {
-                    for (Class<?> c: onClasses(false, true).get()) {
-                        exportFields(fields, c, includeNonPublic, includeStatic);
-                    }
-                } else {
-                    exportFields(fields, c, includeNonPublic, includeStatic);
+            final Listener l = listener;
+            final long start = Listener.NONE == l ? 0 : System.nanoTime();
+            final int slot = ResultCache.slot(ResultCache.FIELDS, includeInherited, includeNonPublic, includeStatic, includeInterfaces);
+            ImmutableList<Field> r = ResultCache.get(metadata, slot);
+            int classes = 0, members = 0;
+            if (null == r) {
+                final List<Class<?>> memberClasses = getMemberClasses(includeInherited, includeInterfaces);
+                final ImmutableList.Builder<Field> b = ImmutableList.builder();
+                for (Class<?> c: memberClasses) {
+                    b.addAll(ClassMetadata.of(c).declaredFields(includeNonPublic, includeStatic));
                 }
-            }
-
-            if (c.isInterface() || includeInterfaces) {
-
-                if (includeInherited) {
-                    for (Class<?> i: onInterfaces(includeInherited, true).get()) {
-                        exportFields(fields, i, includeNonPublic, includeStatic);
+                r = b.build();
+                ResultCache.put(metadata, slot, r);
+                if (Listener.NONE != l) {
+                    l.onCacheMiss(Listener.Operation.ON_FIELDS);
+                    classes = memberClasses.size();
+                    for (Class<?> c: memberClasses) {
+                        members += ClassMetadata.of(c).declaredFields().size();
                     }
-                } else {
-                    exportFields(fields, c, includeNonPublic, includeStatic);
                 }
+            } else if (Listener.NONE != l) {
+                l.onCacheHit(Listener.Operation.ON_FIELDS);
+            }
+            if (Listener.NONE != l) {
+                l.onOperation(Listener.Operation.ON_FIELDS, System.nanoTime() - start, classes, members);
             }
+            return Reflects.onFields(r);
+        }
 
-            return Reflects.onFields(new ArrayList<Field>(fields));
-            
+        /**
+         * @see #queryFields(boolean, boolean, boolean, boolean)
+         * @return
+         */
+        public Query<Field> queryFields() {
+            return queryFields(true, false, false, false);
         }
 
-        private void exportFields(Collection<Field> fields, Class<?> c, boolean includeNonPublic, boolean includeStatic) {
+        /**
+         * Lazy equivalent of {@link #onFields(boolean, boolean, boolean, boolean)}, the hierarchy being walked only when
+         * the query is executed, and only as far as needed.
+         *
+         * @return
+         */
+        public Query<Field> queryFields(boolean includeInherited, final boolean includeNonPublic, final boolean includeStatic, boolean includeInterfaces) {
+            return Query.of(getMemberClasses(includeInherited, includeInterfaces)).expand(new Function<Class<?>, List<Field>>() { @Override public List<Field> apply(@Nullable Class<?> c) {
+                return ClassMetadata.of(c).declaredFields(includeNonPublic, includeStatic);
+            }});
+        }
 
-            Predicate<Field> p = null;
+        public OnMethods onMethods() {
+            return onMethods(true, false, false, false);
+        }
 
-            if (!includeNonPublic) {
-                p = publicField();
-            }
-            if (includeStatic) {
-                if (null == p) {
-                    p = staticField();
-                } else {
-                    p = and(p, staticField());
+        public OnMethods onMethods(boolean includeInherited, boolean includeNonPublic, boolean includeStatic, boolean includeInterfaces) {
+            final Listener l = listener;
+            final long start = Listener.NONE == l ? 0 : System.nanoTime();
+            final int slot = ResultCache.slot(ResultCache.METHODS, includeInherited, includeNonPublic, includeStatic, includeInterfaces);
+            ImmutableList<Method> r = ResultCache.get(metadata, slot);
+            int classes = 0, members = 0;
+            if (null == r) {
+                final List<Class<?>> memberClasses = getMemberClasses(includeInherited, includeInterfaces);
+                final ImmutableList.Builder<Method> b = ImmutableList.builder();
+                for (Class<?> c: memberClasses) {
+                    b.addAll(ClassMetadata.of(c).declaredMethods(includeNonPublic, includeStatic));
                 }
-            } else {
-                if (null == p) {
-                    p = not(staticField());
-                } else {
-                    p = and(p, not(staticField()));
+                r = b.build();
+                ResultCache.put(metadata, slot, r);
+                if (Listener.NONE != l) {
+                    l.onCacheMiss(Listener.Operation.ON_METHODS);
+                    classes = memberClasses.size();
+                    for (Class<?> c: memberClasses) {
+                        members += ClassMetadata.of(c).declaredMethods().size();
+                    }
                 }
+            } else if (Listener.NONE != l) {
+                l.onCacheHit(Listener.Operation.ON_METHODS);
             }
-
-            if (null == p) {
-                exportElements(fields, c.getDeclaredFields());
-            } else {
-                fields.addAll(Reflects.onFields(c.getDeclaredFields()).filter(p));
+            if (Listener.NONE != l) {
+                l.onOperation(Listener.Operation.ON_METHODS, System.nanoTime() - start, classes, members);
             }
+            return Reflects.onMethods(r);
         }
 
+        /**
+         * @see #queryMethods(boolean, boolean, boolean, boolean)
+         * @return
+         */
+        public Query<Method> queryMethods() {
+            return queryMethods(true, false, false, false);
+        }
 
-        public OnMethods onMethods() {
-            return onMethods(true, false, false, false);
+        /**
+         * Lazy equivalent of {@link #onMethods(boolean, boolean, boolean, boolean)}, the hierarchy being walked only when
+         * the query is executed, and only as far as needed.
+         *
+         * @return
+         */
+        public Query<Method> queryMethods(boolean includeInherited, final boolean includeNonPublic, final boolean includeStatic, boolean includeInterfaces) {
+            return Query.of(getMemberClasses(includeInherited, includeInterfaces)).expand(new Function<Class<?>, List<Method>>() { @Override public List<Method> apply(@Nullable Class<?> c) {
+                return ClassMetadata.of(c).declaredMethods(includeNonPublic, includeStatic);
+            }});
         }
 
-        public OnMethods onMethods(boolean includeInherited, boolean includeNonPublic, boolean includeStatic, boolean includeInterfaces) {
+        /**
+         * @see #visitFields(boolean, boolean, boolean, boolean, Visitor)
+         */
+        public boolean visitFields(Visitor<? super Field> v) {
+            return visitFields(true, false, false, false, v);
+        }
 
-            Set<Method> methods = new LinkedHashSet<Method>();
+        /**
+         * <p>Visit the fields of {@link #onFields(boolean, boolean, boolean, boolean)}, in the same order, walking the
+         * (cached) hierarchy without allocating: neither collections nor iterators are created.</p>
+         *
+         * @param v
+         * @return {@code false} if the visitor stopped the traversal.
+         */
+        public boolean visitFields(boolean includeInherited, boolean includeNonPublic, boolean includeStatic, boolean includeInterfaces, Visitor<? super Field> v) {
 
-            if (!c.isInterface()) {
-                if (includeInherited) {
-                    for (Class<?> c: onClasses(false, true).get()) {
-                        exportMethods(methods, c, includeNonPublic, includeStatic);
+            if (!visitElements(metadata.declaredFields(includeNonPublic, includeStatic), v)) {
+                return false;
+            }
+            if (includeInherited) {
+                if (!c.isInterface()) {
+                    for (int i = 0; i < metadata.superClasses.size(); i++) {
+                        if (!visitElements(ClassMetadata.of(metadata.superClasses.get(i)).declaredFields(includeNonPublic, includeStatic), v)) {
+                            return false;
+                        }
                     }
-                } else {
-                    exportMethods(methods, c, includeNonPublic, includeStatic);
                 }
-            }
-
-            if (c.isInterface() || includeInterfaces) {
-
-                if (includeInherited) {
-                    for (Class<?> i: onInterfaces(includeInherited, true).get()) {
-                        exportMethods(methods, i, includeNonPublic, includeStatic);
+                if (c.isInterface() || includeInterfaces) {
+                    for (int i = 0; i < metadata.allInterfaces.size(); i++) {
+                        if (!visitElements(ClassMetadata.of(metadata.allInterfaces.get(i)).declaredFields(includeNonPublic, includeStatic), v)) {
+                            return false;
+                        }
                     }
-                } else {
-                    exportMethods(methods, c, includeNonPublic, includeStatic);
                 }
             }
-
-            return Reflects.onMethods(new ArrayList<Method>(methods));
+            return true;
         }
 
-        private void exportMethods(Collection<Method> methods, Class<?> c, boolean includeNonPublic, boolean includeStatic) {
+        /**
+         * @see #visitMethods(boolean, boolean, boolean, boolean, Visitor)
+         */
+        public boolean visitMethods(Visitor<? super Method> v) {
+            return visitMethods(true, false, false, false, v);
+        }
 
-            Predicate<Method> p = null;
+        /**
+         * Visit the methods of {@link #onMethods(boolean, boolean, boolean, boolean)}, in the same order, without
+         * allocating.
+         *
+         * @param v
+         * @return {@code false} if the visitor stopped the traversal.
+         * @see #visitFields(boolean, boolean, boolean, boolean, Visitor)
+         */
+        public boolean visitMethods(boolean includeInherited, boolean includeNonPublic, boolean includeStatic, boolean includeInterfaces, Visitor<? super Method> v) {
 
-            if (!includeNonPublic) {
-                p = publicMethod();
+            if (!visitElements(metadata.declaredMethods(includeNonPublic, includeStatic), v)) {
+                return false;
             }
-            if (includeStatic) {
-                if (null == p) {
-                    p = staticMethod();
-                } else {
-                    p = and(p, staticMethod());
+            if (includeInherited) {
+                if (!c.isInterface()) {
+                    for (int i = 0; i < metadata.superClasses.size(); i++) {
+                        if (!visitElements(ClassMetadata.of(metadata.superClasses.get(i)).declaredMethods(includeNonPublic, includeStatic), v)) {
+                            return false;
+                        }
+                    }
                 }
-            } else {
-                if (null == p) {
-                    p = not(staticMethod());
-                } else {
-                    p = and(p, not(staticMethod()));
+                if (c.isInterface() || includeInterfaces) {
+                    for (int i = 0; i < metadata.allInterfaces.size(); i++) {
+                        if (!visitElements(ClassMetadata.of(metadata.allInterfaces.get(i)).declaredMethods(includeNonPublic, includeStatic), v)) {
+                            return false;
+                        }
+                    }
                 }
             }
+            return true;
+        }
 
-            if (null == p) {
-                exportElements(methods, c.getDeclaredMethods());
-            } else {
-                methods.addAll(Reflects.onMethods(c.getDeclaredMethods()).filter(p));
+        /**
+         * @see #visitAnnotations(boolean, Visitor)
+         */
+        public boolean visitAnnotations(Visitor<? super Annotation> v) {
+            return visitAnnotations(true, v);
+        }
+
+        /**
+         * Visit the annotations of {@link #onAnnotations(boolean)}, in the same order, without allocating.
+         *
+         * @param includeInherited
+         * @param v
+         * @return {@code false} if the visitor stopped the traversal.
+         * @see #visitFields(boolean, boolean, boolean, boolean, Visitor)
+         */
+        public boolean visitAnnotations(boolean includeInherited, Visitor<? super Annotation> v) {
+
+            if (!visitElements(metadata.declaredAnnotations(), v)) {
+                return false;
+            }
+            if (includeInherited) {
+                if (!c.isInterface()) {
+                    for (int i = 0; i < metadata.superClasses.size(); i++) {
+                        if (!visitElements(ClassMetadata.of(metadata.superClasses.get(i)).declaredAnnotations(), v)) {
+                            return false;
+                        }
+                    }
+                }
+                for (int i = 0; i < metadata.allInterfaces.size(); i++) {
+                    if (!visitElements(ClassMetadata.of(metadata.allInterfaces.get(i)).declaredAnnotations(), v)) {
+                        return false;
+                    }
+                }
             }
+            return true;
         }
 
-        private List<Class<?>> getInterfaces(boolean includeInherited, boolean includeSelf) {
+        /**
+         * Get the classes whose declared members are part of {@code onFields()} or {@code onMethods()}, in order.
+         */
+        private List<Class<?>> getMemberClasses(boolean includeInherited, boolean includeInterfaces) {
 
-            final Set<Class<?>> r = new LinkedHashSet<Class<?>>();
+            if (!includeInherited) {
+                return Collections.<Class<?>>singletonList(c);
+            }
 
-            if (includeSelf && c.isInterface()) {
-                r.add(c);
+            final List<Class<?>> r = new ArrayList<Class<?>>(1 + metadata.superClasses.size() + metadata.allInterfaces.size());
+            r.add(c);
+            if (!c.isInterface()) {
+                r.addAll(metadata.superClasses);
             }
-            if (includeInherited) {
-                exportInterfaces(r, c);
-            } else {
-                exportElements(r, c.getInterfaces());
+            if (c.isInterface() || includeInterfaces) {
+                r.addAll(metadata.allInterfaces);
             }
+            return r;
+        }
 
-            return new ArrayList<Class<?>>(r);
+        /**
+         * @see #onEffectiveMethods(boolean, boolean)
+         * @return
+         */
+        public OnMethods onEffectiveMethods() {
+            return onEffectiveMethods(false, false);
         }
 
-        private List<Class<?>> getSuperClasses() {
+        /**
+         * <p>Act on the methods of the class as seen by a caller, i.e. only the most specific method per signature (the one
+         * dispatched to) rather than it and every method it overrides, as {@link #onMethods(boolean, boolean, boolean, boolean)}
+         * does with {@code includeInherited}.</p>
+         *
+         * <p>Methods are declared or inherited (from super classes and interfaces), bridge and synthetic methods excluded.
+         * They're merged by signature once per class and cached, so that the view is cheap to get again.</p>
+         *
+         * @param includeNonPublic
+         * @param includeStatic If {@code true}, only static methods are included, as in {@code onMethods()}.
+         * @return
+         * @see #method(String, Class[])
+         */
+        public OnMethods onEffectiveMethods(boolean includeNonPublic, boolean includeStatic) {
+            return Reflects.onMethods(Query.of(metadata.effectiveMethods()).filter(MemberQuery.of(includeNonPublic, includeStatic)).get());
+        }
 
-            final List<Class<?>> r = new ArrayList<Class<?>>();
+        /**
+         * <p>Get the method of the given signature, declared or inherited by the class (whatever its visibility), or
+         * {@code null} if none.</p>
+         *
+         * <p>Only the most specific method is returned, i.e. the one declared by the class or the closest super class
+         * (before interfaces) rather than those it overrides, and never the bridge methods generated for it. Lookups are
+         * constant-time, on an index built once per class.</p>
+         *
+         * @param name
+         * @param parameterTypes
+         * @return
+         */
+        public Method method(String name, Class<?>... parameterTypes) {
+            return metadata.methodsBySignature().get(new ClassMetadata.Signature(name, parameterTypes));
+        }
 
-            Class<?> parent = c.getSuperclass();
-            while (parent != null) {
-                r.add(parent);
-                parent = parent.getSuperclass();
-            }
+        /**
+         * Act on the methods of the given name, declared or inherited by the class, the most specific one per signature.
+         *
+         * @param name
+         * @return
+         * @see #method(String, Class[])
+         */
+        public OnMethods methodsNamed(String name) {
+            return Reflects.onMethods(metadata.methodsByName().get(name));
+        }
 
-            return r;
+        /**
+         * @see #onConstructors(boolean)
+         * @return
+         */
+        public OnConstructors onConstructors() {
+            return onConstructors(false);
         }
 
-        private void exportInterfaces(Collection<Class<?>> out, Class<?> c) {
-            for (Class<?> i : c.getInterfaces()) {
-                if (out.add(i)) {
-                    exportInterfaces(out, i);
-                }
+        /**
+         * Act on the constructors declared by the class, resolved once per class.
+         *
+         * @param includeNonPublic
+         * @return
+         */
+        public OnConstructors onConstructors(boolean includeNonPublic) {
+            final List<Constructor<?>> r = metadata.declaredConstructors();
+            return Reflects.onConstructors(includeNonPublic ? r : ImmutableList.copyOf(Collections2.filter(r, publicConstructor())));
+        }
+
+        /**
+         * Get the constructor of the given parameter types declared by the class (whatever its visibility), or {@code null}
+         * if none.
+         *
+         * @param parameterTypes
+         * @return
+         */
+        public Constructor<?> constructor(Class<?>... parameterTypes) {
+            return metadata.declaredConstructor(parameterTypes);
+        }
+
+        /**
+         * Act on the JavaBean properties of the class: getters, setters and fields paired by name, resolved once per class.
+         *
+         * @return
+         * @see Property
+         */
+        public OnProperties onProperties() {
+            return Reflects.onProperties(metadata.properties().values().asList());
+        }
+
+        /**
+         * @param name
+         * @return The property of the given name, or {@code null} if none.
+         * @see #onProperties()
+         */
+        public Property property(String name) {
+            return metadata.properties().get(name);
+        }
+
+        private List<Class<?>> getInterfaces(boolean includeInherited, boolean includeSelf) {
+
+            final Set<Class<?>> r = new LinkedHashSet<Class<?>>();
+
+            if (includeSelf && c.isInterface()) {
+                r.add(c);
             }
+            r.addAll(includeInherited ? metadata.allInterfaces : metadata.interfaces);
+
+            return new ArrayList<Class<?>>(r);
+        }
+
+        private List<Class<?>> getSuperClasses() {
+            return new ArrayList<Class<?>>(metadata.superClasses);
         }
 
         @Override
@@ -338,38 +931,107 @@ public abstract class Reflects {
 
         @Override
         public OnAnnotations onAnnotations(boolean includeInherited) {
-
-            List<Annotation> annotations = new ArrayList<Annotation>();
-
-            exportElements(annotations, c.getDeclaredAnnotations());
-            if (includeInherited) {
-                for (Class<?> c: onClasses(true, false).get()) {
-                    exportElements(annotations, c.getDeclaredAnnotations());
+            final Listener l = listener;
+            final long start = Listener.NONE == l ? 0 : System.nanoTime();
+            final List<Class<?>> classes = getMemberClasses(includeInherited, true);
+            if (Listener.NONE != l) {
+                boolean cached = true;
+                for (Class<?> t: classes) {
+                    cached &= ClassMetadata.of(t).isDeclaredAnnotationsResolved();
+                }
+                if (cached) {
+                    l.onCacheHit(Listener.Operation.ON_ANNOTATIONS);
+                } else {
+                    l.onCacheMiss(Listener.Operation.ON_ANNOTATIONS);
                 }
             }
+            final List<Annotation> r = Query.of(classes).expand(DECLARED_ANNOTATIONS).get();
+            if (Listener.NONE != l) {
+                l.onOperation(Listener.Operation.ON_ANNOTATIONS, System.nanoTime() - start, classes.size(), r.size());
+            }
+            return Reflects.onAnnotations(r);
+        }
+
+        /**
+         * @see #queryAnnotations(boolean)
+         * @return
+         */
+        public Query<Annotation> queryAnnotations() {
+            return queryAnnotations(true);
+        }
 
-            return Reflects.onAnnotations(annotations);
+        /**
+         * Lazy equivalent of {@link #onAnnotations(boolean)}.
+         *
+         * @param includeInherited
+         * @return
+         */
+        public Query<Annotation> queryAnnotations(boolean includeInherited) {
+            return Query.of(getMemberClasses(includeInherited, true)).expand(DECLARED_ANNOTATIONS);
         }
     }
 
+    /**
+     * <p>Act on a list of classes.</p>
+     *
+     * <p>The fields and methods of the classes are assembled from the (filtered) members declared by each class of their
+     * hierarchies, which are resolved once per class, and shared by all the hierarchies the class is part of: querying
+     * many classes extending a common base class resolves the base class once.</p>
+     */
     public static class OnClasses implements AnnotatableCollection<Class<?>>, HasFields, HasMethods, HasAnnotations {
 
-        private List<Class<?>> classes;
+        private final ImmutableList<Class<?>> classes;
+
+        private final ForkJoinPool pool;
 
         OnClasses(List<Class<?>> classes) {
-            this.classes = classes;
+            this(classes, null);
+        }
+
+        OnClasses(List<Class<?>> classes, @Nullable ForkJoinPool pool) {
+            this.classes = ImmutableList.copyOf(classes);
+            this.pool = pool;
+        }
+
+        /**
+         * Resolve the fields and methods of the classes in parallel, in a pool shared by parallel operations, of as many
+         * threads as available processors.
+         *
+         * @return
+         * @see #parallel(ForkJoinPool)
+         */
+        public OnClasses parallel() {
+            return parallel(Parallel.pool());
+        }
+
+        /**
+         * Resolve the fields and methods of the classes (i.e. {@link #onFields()} and {@link #onMethods()}) in parallel,
+         * in the given pool. Results are identical to a serial resolution's, in the order of the classes.
+         *
+         * @param pool
+         * @return
+         */
+        public OnClasses parallel(ForkJoinPool pool) {
+            return new OnClasses(classes, pool);
+        }
+
+        /**
+         * Index the classes, and the fields and methods they declare, by annotation.
+         *
+         * @return
+         */
+        public AnnotationIndex indexAnnotations() {
+            return new AnnotationIndex(classes);
         }
 
         public OnFields onFields() {
             return onFields(true, false, false, false);
         }
         
-        public OnFields onFields(boolean includeInherited, boolean includeNonPublic, boolean includeStatic, boolean includeInterfaces) {
-            List<Field> r = new ArrayList<Field>();
-            for (Class<?> c: classes) {
-                r.addAll(Reflects.onClass(c).onFields(includeInherited, includeNonPublic, includeStatic, includeInterfaces).get());
-            }
-            return Reflects.onFields(r);
+        public OnFields onFields(final boolean includeInherited, final boolean includeNonPublic, final boolean includeStatic, final boolean includeInterfaces) {
+            return Reflects.onFields(Parallel.expand(classes, new Function<Class<?>, List<Field>>() { @Override public List<Field> apply(@Nullable Class<?> c) {
+                return Reflects.onClass(c).onFields(includeInherited, includeNonPublic, includeStatic, includeInterfaces).get();
+            }}, pool));
         }
 
         @Override
@@ -377,12 +1039,10 @@ public abstract class Reflects {
             return onMethods(true, false, false, false);
         }
 
-        public OnMethods onMethods(boolean includeInherited, boolean includeNonPublic, boolean includeStatic, boolean includeInterfaces) {
-            List<Method> r = new ArrayList<Method>();
-            for (Class<?> c: classes) {
-                r.addAll(Reflects.onClass(c).onMethods(includeInherited, includeNonPublic, includeStatic, includeInterfaces).get());
-            }
-            return Reflects.onMethods(r);
+        public OnMethods onMethods(final boolean includeInherited, final boolean includeNonPublic, final boolean includeStatic, final boolean includeInterfaces) {
+            return Reflects.onMethods(Parallel.expand(classes, new Function<Class<?>, List<Method>>() { @Override public List<Method> apply(@Nullable Class<?> c) {
+                return Reflects.onClass(c).onMethods(includeInherited, includeNonPublic, includeStatic, includeInterfaces).get();
+            }}, pool));
         }
 
         @Override
@@ -400,6 +1060,11 @@ public abstract class Reflects {
             return classes;
         }
 
+        @Override
+        public Query<Class<?>> query() {
+            return Query.of(classes);
+        }
+
         @Override
         public Class<?> seek(Predicate<? super Class<?>> predicate) {
             return seekElement(classes, predicate);
@@ -410,11 +1075,19 @@ public abstract class Reflects {
             return filterAsList(classes, a);
         }
 
+        @Override
+        public List<Class<?>> filterMetaAnnotated(Class<? extends Annotation> a) {
+            return filter(classMetaAnnotatedWith(a));
+        }
+
         @Override
         public List<Class<?>> filter(final String regex) {
-            return filter(new Predicate<Class<?>>() { @Override public boolean apply(@Nullable Class<?> input) {
-                return input != null && input.getName().matches(regex);
-            }});
+            return filter(classOfName(regex));
+        }
+
+        @Override
+        public List<Class<?>> filter(final Pattern pattern) {
+            return filter(classOfName(pattern));
         }
 
         @Override
@@ -443,7 +1116,7 @@ public abstract class Reflects {
         public OnAnnotations onAnnotations(boolean includeInherited) {
             if (includeInherited) {
                 List<Annotation> r = new ArrayList<Annotation>();
-                for (Field f: Reflects.onClass(field.getDeclaringClass()).onFields(true, !isPublic(field.getModifiers()), isStatic(field.getModifiers()), true).get()) {
+                for (Field f: ClassMetadata.of(field.getDeclaringClass()).fieldChain(field)) {
                     exportElements(r, f.getDeclaredAnnotations());
                 }
                 return Reflects.onAnnotations(r);
@@ -451,168 +1124,2227 @@ public abstract class Reflects {
                 return Reflects.onAnnotations(field.getDeclaredAnnotations());
             }
         }
+
+        /**
+         * Get the (cached) accessor of the field.
+         *
+         * @return
+         * @throws IllegalArgumentException If the field can't be made accessible.
+         */
+        public FieldAccessor accessor() {
+            return ClassMetadata.of(field.getDeclaringClass()).accessor(field);
+        }
     }
-    
-    public static class OnFields implements AnnotatableCollection<Field>, HasAnnotations {
 
-        List<Field> fields;
+    /**
+     * <p>Accessor of a field through {@link MethodHandle}s, see {@link OnField#accessor()}.</p>
+     *
+     * <p>Unlike {@link Field#get(Object)} and {@link Field#set(Object, Object)}, access is checked once, when the accessor is
+     * created, and the primitive getters and setters (e.g. {@link #getInt(Object)}, {@link #setInt(Object, int)}) do not
+     * box. As with {@link Field#getInt(Object)}, primitives can be read as a wider type (e.g. a {@code byte} as an
+     * {@code int}) and written from a narrower one, but fields of reference types (including wrappers, e.g.
+     * {@link Integer}) can't be read as primitives. {@link #copy(Object, Object)} copies the value of the field from an
+     * object to another without boxing either.</p>
+     *
+     * <p>Targets are ignored for static fields. An instance of the wrong class fails with a {@link ClassCastException},
+     * and a {@code null} one with a {@link NullPointerException}. Getters and setters of unsupported types fail with an
+     * {@link IllegalArgumentException}, as do setters of {@code static final} fields.</p>
+     */
+    public static final class FieldAccessor {
 
-        OnFields(List<Field> fields) {
-            this.fields = fields;
+        private static final int OBJECT = 0, BOOLEAN = 1, BYTE = 2, CHAR = 3, SHORT = 4, INT = 5, LONG = 6, FLOAT = 7, DOUBLE = 8;
+
+        private static final Class<?>[] TYPES = {Object.class, boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class};
+
+        private final Field field;
+
+        private final boolean isStatic;
+
+        /**
+         * Getter typed as {@code (Object)T}.
+         */
+        private final MethodHandle getter;
+
+        private final MethodHandle[] getters = new MethodHandle[TYPES.length];
+        private final MethodHandle[] setters = new MethodHandle[TYPES.length];
+
+        private volatile MethodHandle copier;
+
+        FieldAccessor(Field field) {
+            this.field = field;
+            this.isStatic = isStatic(field.getModifiers());
+            this.getter = receiver(Handles.unreflectGetter(field));
         }
 
-        @Override
-        public OnAnnotations onAnnotations() {
-            return onAnnotations(true);
+        public Field getField() {
+            return field;
         }
 
-        @Override
-        public OnAnnotations onAnnotations(boolean includeInherited) {
-            Set<Annotation> r = new LinkedHashSet<Annotation>();
-            for (Field f: fields) {
-                r.addAll(Reflects.onField(f).onAnnotations(includeInherited).get());
+        /**
+         * @param target
+         * @return Value of the field, boxed if primitive.
+         */
+        public Object get(@Nullable Object target) {
+            try {
+                return (Object) getter(OBJECT).invokeExact(target);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
             }
-            return Reflects.onAnnotations(new ArrayList<Annotation>(r));
         }
 
-        public <O> List<O> transform(Function<? super Field, O> f) {
-            return transformAsList(fields, f);
+        /**
+         * @param target
+         * @param value Value of the field, boxed if primitive.
+         */
+        public void set(@Nullable Object target, @Nullable Object value) {
+            try {
+                setter(OBJECT).invokeExact(target, value);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
         }
 
-        public List<Field> get() {
-            return fields;
+        public boolean getBoolean(@Nullable Object target) {
+            try {
+                return (boolean) getter(BOOLEAN).invokeExact(target);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public void setBoolean(@Nullable Object target, boolean value) {
+            try {
+                setter(BOOLEAN).invokeExact(target, value);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public byte getByte(@Nullable Object target) {
+            try {
+                return (byte) getter(BYTE).invokeExact(target);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public void setByte(@Nullable Object target, byte value) {
+            try {
+                setter(BYTE).invokeExact(target, value);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public char getChar(@Nullable Object target) {
+            try {
+                return (char) getter(CHAR).invokeExact(target);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public void setChar(@Nullable Object target, char value) {
+            try {
+                setter(CHAR).invokeExact(target, value);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public short getShort(@Nullable Object target) {
+            try {
+                return (short) getter(SHORT).invokeExact(target);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public void setShort(@Nullable Object target, short value) {
+            try {
+                setter(SHORT).invokeExact(target, value);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public int getInt(@Nullable Object target) {
+            try {
+                return (int) getter(INT).invokeExact(target);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public void setInt(@Nullable Object target, int value) {
+            try {
+                setter(INT).invokeExact(target, value);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public long getLong(@Nullable Object target) {
+            try {
+                return (long) getter(LONG).invokeExact(target);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public void setLong(@Nullable Object target, long value) {
+            try {
+                setter(LONG).invokeExact(target, value);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public float getFloat(@Nullable Object target) {
+            try {
+                return (float) getter(FLOAT).invokeExact(target);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public void setFloat(@Nullable Object target, float value) {
+            try {
+                setter(FLOAT).invokeExact(target, value);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public double getDouble(@Nullable Object target) {
+            try {
+                return (double) getter(DOUBLE).invokeExact(target);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        public void setDouble(@Nullable Object target, double value) {
+            try {
+                setter(DOUBLE).invokeExact(target, value);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        /**
+         * Copy the value of the field from an object to another.
+         *
+         * @param source
+         * @param target
+         */
+        public void copy(Object source, Object target) {
+            MethodHandle c = copier;
+            if (null == c) {
+                copier = c = MethodHandles.filterArguments(setter(), 1, getter);
+            }
+            try {
+                c.invokeExact(target, source);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
         }
 
         @Override
-        public Field seek(Predicate<? super Field> predicate) {
-            return seekElement(fields, predicate);
+        public String toString() {
+            return field.toString();
         }
 
-        public List<Field> filter(final Class<? extends Annotation> a) {
-            return filterAsList(fields, a);
+        /**
+         * Adapt a getter or setter so that it takes an {@link Object} target, ignored if static.
+         */
+        private MethodHandle receiver(MethodHandle h) {
+            return isStatic ? MethodHandles.dropArguments(h, 0, Object.class) : h.asType(h.type().changeParameterType(0, Object.class));
         }
 
-        public List<Field> filter(final String regex) {
-            return filter(new Predicate<Field>() { @Override public boolean apply(@Nullable Field input) {
-                return input != null && input.getName().matches(regex);
-            }});
+        /**
+         * @return Setter typed as {@code (Object, T)void}.
+         */
+        private MethodHandle setter() {
+            return receiver(Handles.unreflectSetter(field));
         }
 
-        public List<Field> filter(Predicate<? super Field> predicate) {
-            return filterAsList(fields, predicate);
+        private MethodHandle getter(int kind) {
+            MethodHandle r = getters[kind];
+            if (null == r) {
+                if (OBJECT != kind && !field.getType().isPrimitive()) {
+                    throw new IllegalArgumentException("Unable to get " + field + " as " + TYPES[kind]);
+                }
+                try {
+                    getters[kind] = r = getter.asType(MethodType.methodType(TYPES[kind], Object.class));
+                } catch (WrongMethodTypeException e) {
+                    throw new IllegalArgumentException("Unable to get " + field + " as " + TYPES[kind], e);
+                }
+            }
+            return r;
         }
+
+        private MethodHandle setter(int kind) {
+            MethodHandle r = setters[kind];
+            if (null == r) {
+                try {
+                    setters[kind] = r = setter().asType(MethodType.methodType(void.class, Object.class, TYPES[kind]));
+                } catch (WrongMethodTypeException e) {
+                    throw new IllegalArgumentException("Unable to set " + field + " as " + TYPES[kind], e);
+                }
+            }
+            return r;
+        }
+    }
+    
+    public static class OnFields implements AnnotatableCollection<Field>, HasAnnotations {
+
+        private final ImmutableList<Field> fields;
+
+        OnFields(List<Field> fields) {
+            this.fields = ImmutableList.copyOf(fields);
+        }
+
+        /**
+         * Get the (cached) accessors of the fields.
+         *
+         * @return
+         * @see OnField#accessor()
+         */
+        public List<FieldAccessor> accessors() {
+            final List<FieldAccessor> r = new ArrayList<FieldAccessor>(fields.size());
+            for (Field f: fields) {
+                r.add(ClassMetadata.of(f.getDeclaringClass()).accessor(f));
+            }
+            return r;
+        }
+
+        @Override
+        public OnAnnotations onAnnotations() {
+            return onAnnotations(true);
+        }
+
+        @Override
+        public OnAnnotations onAnnotations(boolean includeInherited) {
+            Set<Annotation> r = new LinkedHashSet<Annotation>();
+            for (Field f: fields) {
+                r.addAll(Reflects.onField(f).onAnnotations(includeInherited).get());
+            }
+            return Reflects.onAnnotations(new ArrayList<Annotation>(r));
+        }
+
+        public <O> List<O> transform(Function<? super Field, O> f) {
+            return transformAsList(fields, f);
+        }
+
+        public List<Field> get() {
+            return fields;
+        }
+
+        @Override
+        public Query<Field> query() {
+            return Query.of(fields);
+        }
+
+        @Override
+        public Field seek(Predicate<? super Field> predicate) {
+            return seekElement(fields, predicate);
+        }
+
+        public List<Field> filter(final Class<? extends Annotation> a) {
+            return filterAsList(fields, a);
+        }
+
+        @Override
+        public List<Field> filterMetaAnnotated(Class<? extends Annotation> a) {
+            return filter(fieldMetaAnnotatedWith(a));
+        }
+
+        public List<Field> filter(final String regex) {
+            return filter(fieldOfName(regex));
+        }
+
+        public List<Field> filter(final Pattern pattern) {
+            return filter(fieldOfName(pattern));
+        }
+
+        public List<Field> filter(Predicate<? super Field> predicate) {
+            return filterAsList(fields, predicate);
+        }
+    }
+
+    public static class OnMethod implements HasAnnotations {
+
+        Method method;
+
+        OnMethod(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public OnAnnotations onAnnotations() {
+            return onAnnotations(true);
+        }
+
+        @Override
+        public OnAnnotations onAnnotations(boolean includeInherited) {
+            if (includeInherited) {
+                List<Annotation> r = new ArrayList<Annotation>();
+                for (Method m: ClassMetadata.of(method.getDeclaringClass()).methodChain(method)) {
+                    exportElements(r, m.getDeclaredAnnotations());
+                }
+                return Reflects.onAnnotations(r);
+            } else {
+                return Reflects.onAnnotations(method.getDeclaredAnnotations());
+            }
+        }
+
+        /**
+         * Get the (cached) invoker of the method.
+         *
+         * @return
+         * @throws IllegalArgumentException If the method can't be made accessible.
+         */
+        public MethodInvoker invoker() {
+            return ClassMetadata.of(method.getDeclaringClass()).invoker(method);
+        }
+    }
+
+    /**
+     * <p>Invoker of a method through a {@link MethodHandle}, see {@link OnMethod#invoker()}.</p>
+     *
+     * <p>Unlike {@link Method#invoke(Object, Object...)}, access is checked once, when the invoker is created. Methods of up to
+     * 3 parameters can be {@link #call(Object, Object) called} without allocating an array for the arguments. Call sites
+     * knowing the types of the method should rather {@link MethodHandle#invokeExact(Object...) invoke} its
+     * {@link #getHandle() handle}, which involves no boxing either.</p>
+     *
+     * <p>As with {@link Method#invoke(Object, Object...)}, exceptions thrown by the method are wrapped in an
+     * {@link InvocationTargetException}, arguments (or targets) of the wrong type or number fail with an
+     * {@link IllegalArgumentException}, and a {@code null} target of an instance method with a {@link NullPointerException}.</p>
+     */
+    public static final class MethodInvoker {
+
+        private static final Object[] NO_ARGS = {};
+
+        private final Method method;
+        private final int arity;
+        private final boolean isStatic;
+        private final MethodHandle handle;
+        private final MethodHandle generic;
+        private final MethodHandle spreader;
+
+        MethodInvoker(Method method) {
+            this.method = method;
+            this.arity = method.getParameterTypes().length;
+            this.isStatic = isStatic(method.getModifiers());
+            this.handle = Handles.unreflect(method);
+            this.generic = Handles.generic(Handles.guard(handle), isStatic);
+            this.spreader = generic.asSpreader(Object[].class, arity);
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        /**
+         * @return Handle of the method, typed as declared: {@code (D, P...)R} for an instance method of {@code D},
+         * {@code (P...)R} for a static method.
+         */
+        public MethodHandle getHandle() {
+            return handle;
+        }
+
+        /**
+         * @param target Ignored for static methods.
+         * @param args
+         * @return Result of the method, boxed if primitive, {@code null} if {@code void}.
+         * @throws InvocationTargetException
+         * @see Method#invoke(Object, Object...)
+         */
+        public Object invoke(@Nullable Object target, Object... args) throws InvocationTargetException {
+            final Object[] a = null == args ? NO_ARGS : args;
+            check(target, a.length);
+            try {
+                return (Object) spreader.invokeExact(target, a);
+            } catch (Handles.TargetException e) {
+                throw new InvocationTargetException(e.getCause());
+            } catch (Throwable t) {
+                throw Handles.illegalArguments(method, t);
+            }
+        }
+
+        public Object call(@Nullable Object target) throws InvocationTargetException {
+            check(target, 0);
+            try {
+                return (Object) generic.invokeExact(target);
+            } catch (Handles.TargetException e) {
+                throw new InvocationTargetException(e.getCause());
+            } catch (Throwable t) {
+                throw Handles.illegalArguments(method, t);
+            }
+        }
+
+        public Object call(@Nullable Object target, Object arg) throws InvocationTargetException {
+            check(target, 1);
+            try {
+                return (Object) generic.invokeExact(target, arg);
+            } catch (Handles.TargetException e) {
+                throw new InvocationTargetException(e.getCause());
+            } catch (Throwable t) {
+                throw Handles.illegalArguments(method, t);
+            }
+        }
+
+        public Object call(@Nullable Object target, Object arg0, Object arg1) throws InvocationTargetException {
+            check(target, 2);
+            try {
+                return (Object) generic.invokeExact(target, arg0, arg1);
+            } catch (Handles.TargetException e) {
+                throw new InvocationTargetException(e.getCause());
+            } catch (Throwable t) {
+                throw Handles.illegalArguments(method, t);
+            }
+        }
+
+        public Object call(@Nullable Object target, Object arg0, Object arg1, Object arg2) throws InvocationTargetException {
+            check(target, 3);
+            try {
+                return (Object) generic.invokeExact(target, arg0, arg1, arg2);
+            } catch (Handles.TargetException e) {
+                throw new InvocationTargetException(e.getCause());
+            } catch (Throwable t) {
+                throw Handles.illegalArguments(method, t);
+            }
+        }
+
+        private void check(Object target, int length) {
+            if (length != arity) {
+                throw new IllegalArgumentException("Wrong number of arguments for " + method + ": " + length);
+            }
+            if (null == target && !isStatic) {
+                throw new NullPointerException("Target of " + method + " is null");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return method.toString();
+        }
+    }
+
+    public static class OnMethods implements AnnotatableCollection<Method>, HasAnnotations {
+
+        private final ImmutableList<Method> methods;
+
+        OnMethods(List<Method> methods) {
+            this.methods = ImmutableList.copyOf(methods);
+        }
+
+        /**
+         * Get the (cached) invokers of the methods, e.g. to build dispatch tables.
+         *
+         * @return
+         * @see OnMethod#invoker()
+         */
+        public List<MethodInvoker> invokers() {
+            final List<MethodInvoker> r = new ArrayList<MethodInvoker>(methods.size());
+            for (Method m: methods) {
+                r.add(ClassMetadata.of(m.getDeclaringClass()).invoker(m));
+            }
+            return r;
+        }
+
+        @Override
+        public OnAnnotations onAnnotations() {
+            return onAnnotations(true);
+        }
+
+        @Override
+        public OnAnnotations onAnnotations(boolean includeInherited) {
+            Set<Annotation> r = new LinkedHashSet<Annotation>();
+            for (Method m: methods) {
+                r.addAll(Reflects.onMethod(m).onAnnotations(includeInherited).get());
+            }
+            return Reflects.onAnnotations(new ArrayList<Annotation>(r));
+        }
+
+        public <O> List<O> transform(Function<? super Method, O> f) {
+            return transformAsList(methods, f);
+        }
+
+        public List<Method> get() {
+            return methods;
+        }
+
+        @Override
+        public Query<Method> query() {
+            return Query.of(methods);
+        }
+
+        @Override
+        public Method seek(Predicate<? super Method> predicate) {
+            return seekElement(methods, predicate);
+        }
+
+        public List<Method> filter(final Class<? extends Annotation> a) {
+            return filterAsList(methods, a);
+        }
+
+        @Override
+        public List<Method> filterMetaAnnotated(Class<? extends Annotation> a) {
+            return filter(methodMetaAnnotatedWith(a));
+        }
+
+        public List<Method> filter(final String regex) {
+            return filter(methodOfName(regex));
+        }
+
+        public List<Method> filter(final Pattern pattern) {
+            return filter(methodOfName(pattern));
+        }
+
+        public List<Method> filter(Predicate<? super Method> predicate) {
+            return filterAsList(methods, predicate);
+        }
+    }
+
+    public static class OnConstructor implements HasAnnotations {
+
+        Constructor<?> constructor;
+
+        OnConstructor(Constructor<?> constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        public OnAnnotations onAnnotations() {
+            return onAnnotations(true);
+        }
+
+        /**
+         * @param includeInherited Ignored, constructors not being inherited.
+         * @return
+         */
+        @Override
+        public OnAnnotations onAnnotations(boolean includeInherited) {
+            return Reflects.onAnnotations(constructor.getDeclaredAnnotations());
+        }
+
+        /**
+         * Get the (cached) instantiator of the constructor.
+         *
+         * @return
+         * @throws IllegalArgumentException If the constructor can't be made accessible, or its class is abstract.
+         */
+        public Instantiator<?> instantiator() {
+            return ClassMetadata.of(constructor.getDeclaringClass()).instantiator(constructor);
+        }
+    }
+
+    /**
+     * <p>Instantiator of a class through a {@link MethodHandle} of one of its constructors, see
+     * {@link OnConstructor#instantiator()} and {@link Reflects#instantiator(Class, Class[])}.</p>
+     *
+     * <p>Unlike {@link Constructor#newInstance(Object...)}, access is checked once, when the instantiator is created.
+     * Constructors of up to 3 parameters can be {@link #create(Object) called} without allocating an array for the
+     * arguments, and be used as a {@link #asSupplier() Supplier} or a {@link #asFunction() Function}. Call sites knowing
+     * the types of the constructor should rather {@link MethodHandle#invokeExact(Object...) invoke} its
+     * {@link #getHandle() handle}, which involves no boxing either.</p>
+     *
+     * <p>As with {@link MethodInvoker}, exceptions thrown by the constructor are wrapped in an
+     * {@link InvocationTargetException}, and arguments of the wrong type or number fail with an
+     * {@link IllegalArgumentException}.</p>
+     *
+     * @param <T> Type instantiated.
+     */
+    public static final class Instantiator<T> {
+
+        private static final Object[] NO_ARGS = {};
+
+        private final Constructor<T> constructor;
+        private final int arity;
+        private final MethodHandle handle;
+        private final MethodHandle generic;
+        private final MethodHandle spreader;
+
+        Instantiator(Constructor<T> constructor) {
+            this.constructor = constructor;
+            this.arity = constructor.getParameterTypes().length;
+            this.handle = Handles.unreflectConstructor(constructor);
+            this.generic = Handles.guard(handle).asType(MethodType.genericMethodType(arity));
+            this.spreader = generic.asSpreader(Object[].class, arity);
+        }
+
+        public Constructor<T> getConstructor() {
+            return constructor;
+        }
+
+        /**
+         * @return Handle of the constructor, typed as declared: {@code (P...)T}.
+         */
+        public MethodHandle getHandle() {
+            return handle;
+        }
+
+        /**
+         * @param args
+         * @return
+         * @throws InvocationTargetException
+         * @see Constructor#newInstance(Object...)
+         */
+        @SuppressWarnings("unchecked")
+        public T newInstance(Object... args) throws InvocationTargetException {
+            final Object[] a = null == args ? NO_ARGS : args;
+            check(a.length);
+            try {
+                return (T) (Object) spreader.invokeExact(a);
+            } catch (Handles.TargetException e) {
+                throw new InvocationTargetException(e.getCause());
+            } catch (Throwable t) {
+                throw Handles.illegalArguments(constructor, t);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public T create() throws InvocationTargetException {
+            check(0);
+            try {
+                return (T) (Object) generic.invokeExact();
+            } catch (Handles.TargetException e) {
+                throw new InvocationTargetException(e.getCause());
+            } catch (Throwable t) {
+                throw Handles.illegalArguments(constructor, t);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public T create(Object arg) throws InvocationTargetException {
+            check(1);
+            try {
+                return (T) (Object) generic.invokeExact(arg);
+            } catch (Handles.TargetException e) {
+                throw new InvocationTargetException(e.getCause());
+            } catch (Throwable t) {
+                throw Handles.illegalArguments(constructor, t);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public T create(Object arg0, Object arg1) throws InvocationTargetException {
+            check(2);
+            try {
+                return (T) (Object) generic.invokeExact(arg0, arg1);
+            } catch (Handles.TargetException e) {
+                throw new InvocationTargetException(e.getCause());
+            } catch (Throwable t) {
+                throw Handles.illegalArguments(constructor, t);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public T create(Object arg0, Object arg1, Object arg2) throws InvocationTargetException {
+            check(3);
+            try {
+                return (T) (Object) generic.invokeExact(arg0, arg1, arg2);
+            } catch (Handles.TargetException e) {
+                throw new InvocationTargetException(e.getCause());
+            } catch (Throwable t) {
+                throw Handles.illegalArguments(constructor, t);
+            }
+        }
+
+        /**
+         * View of a constructor without parameters as a {@link Supplier}. Exceptions thrown by the constructor are
+         * propagated, see {@link Throwables#propagate(Throwable)}.
+         *
+         * @return
+         * @throws IllegalArgumentException If the constructor has parameters.
+         */
+        public Supplier<T> asSupplier() {
+            check(0);
+            return new Supplier<T>() { @SuppressWarnings("unchecked") @Override public T get() {
+                try {
+                    return (T) (Object) generic.invokeExact();
+                } catch (Handles.TargetException e) {
+                    throw Throwables.propagate(e.getCause());
+                } catch (Throwable t) {
+                    throw Handles.illegalArguments(constructor, t);
+                }
+            }};
+        }
+
+        /**
+         * View of a constructor of a single parameter as a {@link Function}. Exceptions thrown by the constructor are
+         * propagated, see {@link Throwables#propagate(Throwable)}.
+         *
+         * @return
+         * @throws IllegalArgumentException If the constructor hasn't a single parameter.
+         */
+        public Function<Object, T> asFunction() {
+            check(1);
+            return new Function<Object, T>() { @SuppressWarnings("unchecked") @Override public T apply(@Nullable Object arg) {
+                try {
+                    return (T) (Object) generic.invokeExact(arg);
+                } catch (Handles.TargetException e) {
+                    throw Throwables.propagate(e.getCause());
+                } catch (Throwable t) {
+                    throw Handles.illegalArguments(constructor, t);
+                }
+            }};
+        }
+
+        private void check(int length) {
+            if (length != arity) {
+                throw new IllegalArgumentException("Wrong number of arguments for " + constructor + ": " + length);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return constructor.toString();
+        }
+    }
+
+    public static class OnConstructors implements AnnotatableCollection<Constructor<?>>, HasAnnotations {
+
+        private final ImmutableList<Constructor<?>> constructors;
+
+        OnConstructors(List<Constructor<?>> constructors) {
+            this.constructors = ImmutableList.copyOf(constructors);
+        }
+
+        /**
+         * Get the (cached) instantiators of the constructors.
+         *
+         * @return
+         * @see OnConstructor#instantiator()
+         */
+        public List<Instantiator<?>> instantiators() {
+            final List<Instantiator<?>> r = new ArrayList<Instantiator<?>>(constructors.size());
+            for (Constructor<?> k: constructors) {
+                r.add(ClassMetadata.of(k.getDeclaringClass()).instantiator(k));
+            }
+            return r;
+        }
+
+        @Override
+        public OnAnnotations onAnnotations() {
+            return onAnnotations(true);
+        }
+
+        @Override
+        public OnAnnotations onAnnotations(boolean includeInherited) {
+            Set<Annotation> r = new LinkedHashSet<Annotation>();
+            for (Constructor<?> k: constructors) {
+                exportElements(r, k.getDeclaredAnnotations());
+            }
+            return Reflects.onAnnotations(new ArrayList<Annotation>(r));
+        }
+
+        public <O> List<O> transform(Function<? super Constructor<?>, O> f) {
+            return transformAsList(constructors, f);
+        }
+
+        public List<Constructor<?>> get() {
+            return constructors;
+        }
+
+        @Override
+        public Query<Constructor<?>> query() {
+            return Query.of(constructors);
+        }
+
+        @Override
+        public Constructor<?> seek(Predicate<? super Constructor<?>> predicate) {
+            return seekElement(constructors, predicate);
+        }
+
+        public List<Constructor<?>> filter(final Class<? extends Annotation> a) {
+            return filterAsList(constructors, a);
+        }
+
+        @Override
+        public List<Constructor<?>> filterMetaAnnotated(Class<? extends Annotation> a) {
+            return filter(constructorMetaAnnotatedWith(a));
+        }
+
+        /**
+         * @param regex Matched against the names of the constructors, i.e. of their classes.
+         * @return
+         */
+        public List<Constructor<?>> filter(final String regex) {
+            return filter(constructorOfName(regex));
+        }
+
+        public List<Constructor<?>> filter(final Pattern pattern) {
+            return filter(constructorOfName(pattern));
+        }
+
+        public List<Constructor<?>> filter(Predicate<? super Constructor<?>> predicate) {
+            return filterAsList(constructors, predicate);
+        }
+    }
+
+    /**
+     * <p>JavaBean property of a class, see {@link OnClass#onProperties()}: its getter, setter and (backing) field, any of
+     * which may be missing, though not both accessors.</p>
+     *
+     * <p>The annotations of the property are those of its getter, setter and field, in that order, including those they
+     * inherit (see {@link OnMethod#onAnnotations(boolean)}), the first of each type winning.</p>
+     *
+     * <p>The property is {@link #get(Object) read} through its getter and {@link #set(Object, Object) written} through its
+     * setter, using {@link MethodHandle}s created on first use, never through its field. Call
+     * sites knowing the types of the property can {@link MethodHandle#invokeExact(Object...) invoke} its
+     * {@link #getReadHandle() read} and {@link #getWriteHandle() write} handles instead, which involve no boxing. As with
+     * {@link FieldAccessor}, exceptions are propagated unchecked, and reading (or writing) a property that can't be read
+     * (or written) fails with an {@link IllegalArgumentException}.</p>
+     */
+    public static final class Property implements HasAnnotations {
+
+        private final Class<?> declaringClass;
+        private final String name;
+        private final Class<?> type;
+        private final Method getter;
+        private final Method setter;
+        private final Field field;
+
+        private volatile ImmutableMap<Class<? extends Annotation>, Annotation> annotations;
+        private volatile BitSet metaAnnotationBits;
+
+        private volatile MethodHandle reader;
+        private volatile MethodHandle writer;
+        private volatile MethodHandle genericReader;
+        private volatile MethodHandle genericWriter;
+
+        Property(Class<?> declaringClass, String name, Class<?> type, @Nullable Method getter, @Nullable Method setter, @Nullable Field field) {
+            this.declaringClass = declaringClass;
+            this.name = name;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+            this.field = field;
+        }
+
+        /**
+         * @return The class the property was resolved on.
+         */
+        public Class<?> getDeclaringClass() {
+            return declaringClass;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        @Nullable
+        public Method getGetter() {
+            return getter;
+        }
+
+        @Nullable
+        public Method getSetter() {
+            return setter;
+        }
+
+        @Nullable
+        public Field getField() {
+            return field;
+        }
+
+        /**
+         * @return {@code true} if the property has a getter. Its field, if any, is not read from.
+         */
+        public boolean isReadable() {
+            return null != getter;
+        }
+
+        /**
+         * @return {@code true} if the property has a setter. Its field, if any, is not written to.
+         */
+        public boolean isWritable() {
+            return null != setter;
+        }
+
+        /**
+         * @return The merged annotations of the property, see {@link Property}.
+         */
+        public List<Annotation> getAnnotations() {
+            return annotations().values().asList();
+        }
+
+        @Nullable
+        public <A extends Annotation> A getAnnotation(Class<A> annotationType) {
+            return annotationType.cast(annotations().get(annotationType));
+        }
+
+        public boolean isAnnotationPresent(Class<? extends Annotation> annotationType) {
+            return annotations().containsKey(annotationType);
+        }
+
+        @Override
+        public OnAnnotations onAnnotations() {
+            return onAnnotations(true);
+        }
+
+        @Override
+        public OnAnnotations onAnnotations(boolean includeInherited) {
+            if (includeInherited) {
+                return Reflects.onAnnotations(getAnnotations());
+            }
+            final Map<Class<? extends Annotation>, Annotation> r = new LinkedHashMap<Class<? extends Annotation>, Annotation>();
+            for (AccessibleObject o: new AccessibleObject[] {getter, setter, field}) {
+                if (null != o) {
+                    merge(r, o.getDeclaredAnnotations());
+                }
+            }
+            return Reflects.onAnnotations(new ArrayList<Annotation>(r.values()));
+        }
+
+        private ImmutableMap<Class<? extends Annotation>, Annotation> annotations() {
+            ImmutableMap<Class<? extends Annotation>, Annotation> r = annotations;
+            if (null == r) {
+                final Map<Class<? extends Annotation>, Annotation> m = new LinkedHashMap<Class<? extends Annotation>, Annotation>();
+                if (null != getter) {
+                    merge(m, onMethod(getter).onAnnotations(true).get());
+                }
+                if (null != setter) {
+                    merge(m, onMethod(setter).onAnnotations(true).get());
+                }
+                if (null != field) {
+                    merge(m, onField(field).onAnnotations(true).get());
+                }
+                annotations = r = ImmutableMap.copyOf(m);
+            }
+            return r;
+        }
+
+        private static void merge(Map<Class<? extends Annotation>, Annotation> m, Iterable<Annotation> annotations) {
+            for (Annotation a: annotations) {
+                if (!m.containsKey(a.annotationType())) {
+                    m.put(a.annotationType(), a);
+                }
+            }
+        }
+
+        private static void merge(Map<Class<? extends Annotation>, Annotation> m, Annotation[] annotations) {
+            merge(m, asList(annotations));
+        }
+
+        /**
+         * @return The bits of the annotations of the property and of their meta-annotations, see {@link AnnotationBits}.
+         */
+        BitSet metaAnnotationBits() {
+            BitSet r = metaAnnotationBits;
+            if (null == r) {
+                r = new BitSet();
+                for (Class<? extends Annotation> t: annotations().keySet()) {
+                    r.or(ClassMetadata.of(t).annotationClosureBits());
+                }
+                metaAnnotationBits = r;
+            }
+            return r;
+        }
+
+        /**
+         * @return Handle reading the property, typed {@code (C)T} where {@code C} is the {@link #getDeclaringClass()
+         * declaring class} of the property, even if its getter is inherited.
+         * @throws IllegalArgumentException If the property has no getter, or it can't be made accessible.
+         */
+        public MethodHandle getReadHandle() {
+            MethodHandle r = reader;
+            if (null == r) {
+                if (null != getter) {
+                    r = Handles.unreflect(getter);
+                } else {
+                    throw new IllegalArgumentException("Property " + name + " of " + declaringClass.getName() + " can't be read");
+                }
+                reader = r = r.asType(r.type().changeParameterType(0, declaringClass));
+            }
+            return r;
+        }
+
+        /**
+         * @return Handle writing the property, typed {@code (C, T)void} where {@code C} is the {@link #getDeclaringClass()
+         * declaring class} of the property, even if its setter is inherited.
+         * @throws IllegalArgumentException If the property has no setter, or it can't be made accessible.
+         */
+        public MethodHandle getWriteHandle() {
+            MethodHandle r = writer;
+            if (null == r) {
+                if (null != setter) {
+                    r = Handles.unreflect(setter);
+                } else {
+                    throw new IllegalArgumentException("Property " + name + " of " + declaringClass.getName() + " can't be written");
+                }
+                writer = r = r.asType(r.type().changeParameterType(0, declaringClass).changeReturnType(void.class));
+            }
+            return r;
+        }
+
+        /**
+         * @param target
+         * @return Value of the property, boxed if primitive.
+         */
+        public Object get(Object target) {
+            MethodHandle h = genericReader;
+            if (null == h) {
+                genericReader = h = getReadHandle().asType(MethodType.genericMethodType(1));
+            }
+            try {
+                return (Object) h.invokeExact(target);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        /**
+         * @param target
+         * @param value Value of the property, boxed if primitive.
+         */
+        public void set(Object target, @Nullable Object value) {
+            MethodHandle h = genericWriter;
+            if (null == h) {
+                genericWriter = h = getWriteHandle().asType(MethodType.methodType(void.class, Object.class, Object.class));
+            }
+            try {
+                h.invokeExact(target, value);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return declaringClass.getName() + "." + name;
+        }
+    }
+
+    public static class OnProperties implements AnnotatableCollection<Property>, HasAnnotations {
+
+        private final ImmutableList<Property> properties;
+
+        OnProperties(List<Property> properties) {
+            this.properties = ImmutableList.copyOf(properties);
+        }
+
+        @Override
+        public OnAnnotations onAnnotations() {
+            return onAnnotations(true);
+        }
+
+        @Override
+        public OnAnnotations onAnnotations(boolean includeInherited) {
+            Set<Annotation> r = new LinkedHashSet<Annotation>();
+            for (Property p: properties) {
+                r.addAll(p.onAnnotations(includeInherited).get());
+            }
+            return Reflects.onAnnotations(new ArrayList<Annotation>(r));
+        }
+
+        public <O> List<O> transform(Function<? super Property, O> f) {
+            return transformAsList(properties, f);
+        }
+
+        public List<Property> get() {
+            return properties;
+        }
+
+        @Override
+        public Query<Property> query() {
+            return Query.of(properties);
+        }
+
+        @Override
+        public Property seek(Predicate<? super Property> predicate) {
+            return seekElement(properties, predicate);
+        }
+
+        public List<Property> filter(final Class<? extends Annotation> a) {
+            return filter(propertyAnnotatedWith(a));
+        }
+
+        @Override
+        public List<Property> filterMetaAnnotated(Class<? extends Annotation> a) {
+            return filter(propertyMetaAnnotatedWith(a));
+        }
+
+        public List<Property> filter(final String regex) {
+            return filter(propertyOfName(regex));
+        }
+
+        public List<Property> filter(final Pattern pattern) {
+            return filter(propertyOfName(pattern));
+        }
+
+        public List<Property> filter(Predicate<? super Property> predicate) {
+            return filterAsList(properties, predicate);
+        }
+    }
+
+    /**
+     * <p>Copier of the properties (and fields) of a class to another, see {@link Reflects#copier(Class, Class)}.</p>
+     *
+     * <p>Values are copied by name, from the {@link Property#isReadable() readable} {@link OnClass#onProperties()
+     * properties} (through their getter) of the source to the {@link Property#isWritable() writable} ones (through their
+     * setter) of the target. If the copier {@link #isIncludeFields() includes fields}, values are also copied from the
+     * instance {@link OnClass#onFields(boolean, boolean, boolean, boolean) fields} (public or not, declared or inherited,
+     * the most specific one per name) of the source, to the non-final instance fields of the target, properties first: a
+     * property without getter (or setter) is then read (or written) through its field. A value is copied if its types
+     * match: equal if primitive, assignable otherwise.</p>
+     *
+     * <p>The copy of each value is a {@link MethodHandle} composing the reader and the writer, typed as declared, and these
+     * are folded into a single handle performing the whole copy, see {@link #getHandle()}: no value is boxed nor looked up.
+     * Values whose handles can't be created (e.g. members that can't be made accessible) are copied reflectively instead,
+     * after the others.</p>
+     *
+     * <p>As with {@link FieldAccessor}, exceptions are propagated unchecked.</p>
+     *
+     * @param <S> Source type.
+     * @param <T> Target type.
+     */
+    public static final class Copier<S, T> {
+
+        private final Class<S> sourceClass;
+        private final Class<T> targetClass;
+        private final boolean includeFields;
+        private final ImmutableList<String> names;
+
+        /**
+         * Copy typed {@code (S, T)void}.
+         */
+        private final MethodHandle handle;
+
+        /**
+         * Copy typed {@code (Object, Object)void}.
+         */
+        private final MethodHandle generic;
+
+        /**
+         * Pairs of reader (field or getter) and writer (field or setter) copied reflectively.
+         */
+        private final ImmutableList<AccessibleObject[]> fallback;
+
+        private volatile Instantiator<T> instantiator;
+
+        Copier(Class<S> sourceClass, Class<T> targetClass, boolean includeFields) {
+
+            this.sourceClass = sourceClass;
+            this.targetClass = targetClass;
+            this.includeFields = includeFields;
+
+            final Map<String, Object> readers = members(sourceClass, true, includeFields);
+            final Map<String, Object> writers = members(targetClass, false, includeFields);
+            final ImmutableList.Builder<String> names = ImmutableList.builder();
+            final ImmutableList.Builder<AccessibleObject[]> fallback = ImmutableList.builder();
+            MethodHandle h = MethodHandles.dropArguments(MethodHandles.constant(Object.class, null), 0, sourceClass, targetClass)
+                    .asType(MethodType.methodType(void.class, sourceClass, targetClass));
+
+            for (Map.Entry<String, Object> e: writers.entrySet()) {
+                final Object reader = readers.get(e.getKey());
+                final Object writer = e.getValue();
+                if (null == reader || !compatible(typeOf(reader), typeOf(writer))) {
+                    continue;
+                }
+                names.add(e.getKey());
+                try {
+                    h = MethodHandles.foldArguments(pair(reader, writer), h);
+                } catch (IllegalArgumentException x) {
+                    fallback.add(new AccessibleObject[] {Handles.accessibleCopy(memberOf(reader, true)), Handles.accessibleCopy(memberOf(writer, false))});
+                }
+            }
+
+            this.names = names.build();
+            this.handle = h;
+            this.generic = h.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            this.fallback = fallback.build();
+        }
+
+        /**
+         * @param c
+         * @param read
+         * @param includeFields
+         * @return Readable (or writable) properties, and fields if included, of the class by name, properties first.
+         */
+        private static Map<String, Object> members(Class<?> c, boolean read, boolean includeFields) {
+            final Map<String, Object> r = new LinkedHashMap<String, Object>();
+            final OnClass on = onClass(c);
+            for (Property p: on.onProperties().get()) {
+                if (read ? p.isReadable() : p.isWritable()) {
+                    r.put(p.getName(), p);
+                }
+            }
+            if (!includeFields) {
+                return r;
+            }
+            for (Field f: on.onFields(true, true, false, false).get()) {
+                if (!r.containsKey(f.getName()) && (read || !Modifier.isFinal(f.getModifiers()))) {
+                    r.put(f.getName(), f);
+                }
+            }
+            return r;
+        }
+
+        private static Class<?> typeOf(Object member) {
+            return member instanceof Property ? ((Property) member).getType() : ((Field) member).getType();
+        }
+
+        private static boolean compatible(Class<?> from, Class<?> to) {
+            return from.isPrimitive() || to.isPrimitive() ? from == to : to.isAssignableFrom(from);
+        }
+
+        private static Member memberOf(Object member, boolean read) {
+            if (member instanceof Property) {
+                final Property p = (Property) member;
+                return read ? p.getGetter() : p.getSetter();
+            }
+            return (Field) member;
+        }
+
+        /**
+         * @return Copy of a value, typed {@code (S, T)void}.
+         */
+        private MethodHandle pair(Object reader, Object writer) {
+            final Class<?> type = typeOf(writer);
+            final MethodHandle r = (reader instanceof Property ? ((Property) reader).getReadHandle() : Handles.unreflectGetter((Field) reader))
+                    .asType(MethodType.methodType(type, sourceClass));
+            final MethodHandle w = (writer instanceof Property ? ((Property) writer).getWriteHandle() : Handles.unreflectSetter((Field) writer))
+                    .asType(MethodType.methodType(void.class, targetClass, type));
+            return MethodHandles.permuteArguments(MethodHandles.filterArguments(w, 1, r), MethodType.methodType(void.class, sourceClass, targetClass), 1, 0);
+        }
+
+        public Class<S> getSourceClass() {
+            return sourceClass;
+        }
+
+        public Class<T> getTargetClass() {
+            return targetClass;
+        }
+
+        /**
+         * @return {@code true} if fields are copied too, see {@link Reflects#copier(Class, Class, boolean)}.
+         */
+        public boolean isIncludeFields() {
+            return includeFields;
+        }
+
+        /**
+         * @return Names of the properties and fields copied.
+         */
+        public List<String> getNames() {
+            return names;
+        }
+
+        /**
+         * @return Handle of the copy, typed {@code (S, T)void}, excluding the values copied reflectively (if any).
+         */
+        public MethodHandle getHandle() {
+            return handle;
+        }
+
+        /**
+         * @return {@code true} if all values are copied by {@link #getHandle()}.
+         */
+        public boolean isCompiled() {
+            return fallback.isEmpty();
+        }
+
+        /**
+         * @param source
+         * @param target
+         * @return The target.
+         */
+        public T copy(S source, T target) {
+            try {
+                generic.invokeExact((Object) source, (Object) target);
+                for (int i = 0; i < fallback.size(); i++) {
+                    final AccessibleObject[] pair = fallback.get(i);
+                    final Object value = pair[0] instanceof Field ? ((Field) pair[0]).get(source) : ((Method) pair[0]).invoke(source);
+                    if (pair[1] instanceof Field) {
+                        ((Field) pair[1]).set(target, value);
+                    } else {
+                        ((Method) pair[1]).invoke(target, value);
+                    }
+                }
+            } catch (InvocationTargetException e) {
+                throw Throwables.propagate(e.getCause());
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+            return target;
+        }
+
+        /**
+         * Copy to a new instance of the target class, created with its constructor without parameters.
+         *
+         * @param source
+         * @return
+         * @throws IllegalArgumentException If the target class has no constructor without parameters.
+         */
+        public T map(S source) {
+            Instantiator<T> i = instantiator;
+            if (null == i) {
+                instantiator = i = Reflects.instantiator(targetClass);
+            }
+            try {
+                return copy(source, i.create());
+            } catch (InvocationTargetException e) {
+                throw Throwables.propagate(e.getCause());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return sourceClass.getName() + " -> " + targetClass.getName() + " " + names;
+        }
+    }
+
+    public static class OnAnnotations implements OnCollection<Annotation> {
+
+        private final ImmutableList<Annotation> annotations;
+
+        OnAnnotations(List<Annotation> annotations) {
+            this.annotations = ImmutableList.copyOf(annotations);
+        }
+
+        /**
+         * Get the attribute values of the annotations, extracted once per annotation.
+         *
+         * @return
+         * @see AnnotationData
+         */
+        public List<AnnotationData> values() {
+            final ImmutableList.Builder<AnnotationData> r = ImmutableList.builder();
+            for (Annotation a: annotations) {
+                r.add(AnnotationData.of(a));
+            }
+            return r.build();
+        }
+
+        @Override
+        public List<Annotation> get() {
+            return annotations;
+        }
+
+        @Override
+        public Query<Annotation> query() {
+            return Query.of(annotations);
+        }
+
+        @Override
+        public Annotation seek(Predicate<? super Annotation> predicate) {
+            return seekElement(annotations, predicate);
+        }
+
+        @Override
+        public List<Annotation> filter(final String regex) {
+            return filter(NameMatcher.of(regex));
+        }
+
+        @Override
+        public List<Annotation> filter(final Pattern pattern) {
+            return filter(NameMatcher.of(pattern));
+        }
+
+        private List<Annotation> filter(final NameMatcher m) {
+            return filter(new Predicate<Annotation>() { @Override public boolean apply(@Nullable Annotation a) {
+                return a != null && m.matches(a.annotationType().getName());
+            }});
+        }
+
+        @Override
+        public List<Annotation> filter(Predicate<? super Annotation> predicate) {
+            return filterAsList(annotations, predicate);
+        }
+
+        @Override
+        public <O> List<O> transform(Function<? super Annotation, O> f) {
+            return transformAsList(annotations, f);
+        }
+    }
+
+    /**
+     * <p>Callback of {@link Query#forEach(Visitor)} and of {@link OnClass#visitMethods(Visitor)} (and its variants).</p>
+     *
+     * @param <E>
+     */
+    public static interface Visitor<E> {
+
+        /**
+         * @param e
+         * @return {@code false} to stop the traversal.
+         */
+        boolean visit(E e);
+    }
+
+    /**
+     * <p>Attribute values of an annotation, extracted once, see {@link OnAnnotations#values()}.</p>
+     *
+     * <p>Reading an attribute of an {@link Annotation} (e.g. {@code a.value()}) goes through a dynamic proxy and its
+     * invocation handler, which clones arrays. Values are here read once and held in a flat array, indexed by attribute,
+     * so that reads are map and array lookups ({@link #indexOf(String)} can be resolved once to skip the former). Array
+     * values are held as immutable lists, nested annotations as {@link AnnotationData}.</p>
+     *
+     * <p>Instances are immutable, and cached per annotation instance (the JDK itself caching annotation instances per
+     * element) in the metadata of the annotation type, so that the cache goes with the type's class loader. Values of
+     * {@code Class} attributes that the type's loader doesn't see (e.g. classes of a plugin) would keep their own loaders
+     * alive: such instances are not cached.</p>
+     */
+    public static final class AnnotationData {
+
+        /**
+         * Attributes of an annotation type, sorted by name.
+         */
+        static final class Attributes {
+
+            final ImmutableMap<String, Integer> indexes;
+            final ImmutableList<MethodInvoker> invokers;
+
+            Attributes(Class<? extends Annotation> type) {
+                final SortedMap<String, Method> methods = new TreeMap<String, Method>();
+                for (Method m: ClassMetadata.of(type).declaredMethods()) {
+                    if (!isStatic(m.getModifiers()) && 0 == m.getParameterTypes().length) {
+                        methods.put(m.getName(), m);
+                    }
+                }
+                final ImmutableMap.Builder<String, Integer> indexes = ImmutableMap.builder();
+                final ImmutableList.Builder<MethodInvoker> invokers = ImmutableList.builder();
+                int i = 0;
+                for (Method m: methods.values()) {
+                    indexes.put(m.getName(), i++);
+                    invokers.add(ClassMetadata.of(type).invoker(m));
+                }
+                this.indexes = indexes.build();
+                this.invokers = invokers.build();
+            }
+        }
+
+        private final Class<? extends Annotation> annotationType;
+        private final ImmutableMap<String, Integer> indexes;
+        private final Object[] values;
+
+        /**
+         * {@code false} if a value references a class the loader of the annotation type doesn't see.
+         */
+        final boolean cacheable;
+
+        AnnotationData(Annotation a) {
+            this.annotationType = a.annotationType();
+            final Attributes attributes = ClassMetadata.of(annotationType).annotationAttributes();
+            this.indexes = attributes.indexes;
+            this.values = new Object[attributes.invokers.size()];
+            final boolean[] cacheable = {true};
+            for (int i = 0; i < values.length; i++) {
+                try {
+                    values[i] = freeze(attributes.invokers.get(i).call(a), annotationType, cacheable);
+                } catch (InvocationTargetException e) {
+                    throw Throwables.propagate(e.getCause());
+                }
+            }
+            this.cacheable = cacheable[0];
+        }
+
+        /**
+         * Get the attribute values of an annotation, extracting and caching them if necessary.
+         *
+         * @param a
+         * @return
+         */
+        public static AnnotationData of(Annotation a) {
+            return ClassMetadata.of(a.annotationType()).annotationData(a);
+        }
+
+        private static Object freeze(Object value, Class<?> annotationType, boolean[] cacheable) {
+            if (value instanceof Annotation) {
+                final AnnotationData r = of((Annotation) value);
+                cacheable[0] &= r.cacheable;
+                return r;
+            } else if (value instanceof Class) {
+                cacheable[0] &= ClassMetadata.sees(annotationType, (Class<?>) value);
+            } else if (null != value && value.getClass().isArray()) {
+                final int length = java.lang.reflect.Array.getLength(value);
+                final ImmutableList.Builder<Object> r = ImmutableList.builder();
+                for (int i = 0; i < length; i++) {
+                    r.add(freeze(java.lang.reflect.Array.get(value, i), annotationType, cacheable));
+                }
+                return r.build();
+            }
+            return value;
+        }
+
+        public Class<? extends Annotation> getAnnotationType() {
+            return annotationType;
+        }
+
+        /**
+         * @param name
+         * @return Index of the attribute, to {@link #get(int) get} its value.
+         * @throws IllegalArgumentException If the annotation has no such attribute.
+         */
+        public int indexOf(String name) {
+            final Integer r = indexes.get(name);
+            if (null == r) {
+                throw new IllegalArgumentException(annotationType.getName() + " has no attribute " + name);
+            }
+            return r;
+        }
+
+        public Object get(int index) {
+            return values[index];
+        }
+
+        /**
+         * @param name
+         * @return
+         * @throws IllegalArgumentException If the annotation has no such attribute.
+         */
+        public Object get(String name) {
+            return values[indexOf(name)];
+        }
+
+        /**
+         * @return Value of the {@code value} attribute.
+         */
+        public Object getValue() {
+            return get("value");
+        }
+
+        public String getString(String name) {
+            return (String) get(name);
+        }
+
+        public boolean getBoolean(String name) {
+            return (Boolean) get(name);
+        }
+
+        public int getInt(String name) {
+            return (Integer) get(name);
+        }
+
+        public long getLong(String name) {
+            return (Long) get(name);
+        }
+
+        public double getDouble(String name) {
+            return (Double) get(name);
+        }
+
+        /**
+         * @param name
+         * @return Value of a {@link Class} attribute. Named so as not to overload {@link Object#getClass()}.
+         */
+        public Class<?> getType(String name) {
+            return (Class<?>) get(name);
+        }
+
+        public <E extends Enum<E>> E getEnum(String name, Class<E> type) {
+            return type.cast(get(name));
+        }
+
+        public AnnotationData getAnnotation(String name) {
+            return (AnnotationData) get(name);
+        }
+
+        /**
+         * @param name
+         * @param <E>
+         * @return Value of an array attribute.
+         */
+        @SuppressWarnings("unchecked")
+        public <E> List<E> getList(String name) {
+            return (List<E>) get(name);
+        }
+
+        /**
+         * @return The values, by attribute name.
+         */
+        public Map<String, Object> getValues() {
+            final ImmutableMap.Builder<String, Object> r = ImmutableMap.builder();
+            for (Map.Entry<String, Integer> e: indexes.entrySet()) {
+                r.put(e.getKey(), values[e.getValue()]);
+            }
+            return r.build();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof AnnotationData && annotationType == ((AnnotationData) o).annotationType && Arrays.equals(values, ((AnnotationData) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * annotationType.hashCode() + Arrays.hashCode(values);
+        }
+
+        @Override
+        public String toString() {
+            return "@" + annotationType.getName() + getValues();
+        }
+    }
+
+    /**
+     * <p>Lazy query, i.e. a source of elements and a pipeline of filters and transformations that is only executed when a
+     * terminal operation ({@link #get()}, {@link #seek(Predicate)}, {@link #first()}, {@link #count()} or
+     * {@link #forEach(Visitor)}) is called.</p>
+     *
+     * <p>The pipeline is executed in a single pass, every element going through all the steps before the next one is
+     * read, and without intermediate collections. Short-circuiting operations stop reading the source, e.g. a
+     * {@link #seek(Predicate)} on {@link OnClass#queryMethods()} stops walking the hierarchy at the first match.</p>
+     *
+     * <p>A query can be executed several times, each execution reading the source again.</p>
+     *
+     * @param <E>
+     * @see OnClass#queryMethods()
+     * @see OnClass#queryFields()
+     * @see OnClass#queryAnnotations()
+     */
+    public static abstract class Query<E> {
+
+        Query() {}
+
+        static <E> Query<E> of(final Iterable<? extends E> elements) {
+            return new Query<E>() { @Override public boolean forEach(Visitor<? super E> v) {
+                for (E e: elements) {
+                    if (!v.visit(e)) {
+                        return false;
+                    }
+                }
+                return true;
+            }};
+        }
+
+        /**
+         * Visit the elements, in order.
+         *
+         * @param v
+         * @return {@code false} if the visitor stopped the traversal.
+         */
+        public abstract boolean forEach(Visitor<? super E> v);
+
+        /**
+         * @param predicate
+         * @return A query of the elements matching the predicate.
+         */
+        public Query<E> filter(final Predicate<? super E> predicate) {
+            final Query<E> source = this;
+            return new Query<E>() { @Override public boolean forEach(final Visitor<? super E> v) {
+                return source.forEach(new Visitor<E>() { @Override public boolean visit(E e) {
+                    return !predicate.apply(e) || v.visit(e);
+                }});
+            }};
+        }
+
+        /**
+         * @param f
+         * @param <O>
+         * @return A query of the elements transformed.
+         */
+        public <O> Query<O> transform(final Function<? super E, O> f) {
+            final Query<E> source = this;
+            return new Query<O>() { @Override public boolean forEach(final Visitor<? super O> v) {
+                return source.forEach(new Visitor<E>() { @Override public boolean visit(E e) {
+                    return v.visit(f.apply(e));
+                }});
+            }};
+        }
+
+        /**
+         * Expand every element into several, e.g. a class into its members.
+         */
+        <O> Query<O> expand(final Function<? super E, ? extends Iterable<? extends O>> f) {
+            final Query<E> source = this;
+            return new Query<O>() { @Override public boolean forEach(final Visitor<? super O> v) {
+                return source.forEach(new Visitor<E>() { @Override public boolean visit(E e) {
+                    for (O o: f.apply(e)) {
+                        if (!v.visit(o)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }});
+            }};
+        }
+
+        /**
+         * Execute the query.
+         *
+         * @return An unmodifiable list of the elements, which may be {@code null} if {@link #transform(Function) transformed}
+         *         so.
+         */
+        public List<E> get() {
+            final List<E> r = new ArrayList<E>();
+            forEach(new Visitor<E>() { @Override public boolean visit(E e) {
+                r.add(e);
+                return true;
+            }});
+            return Collections.unmodifiableList(r);
+        }
+
+        /**
+         * Execute the query until an element matches the predicate.
+         *
+         * @param predicate
+         * @return The first element matching, or {@code null} if none.
+         */
+        public E seek(Predicate<? super E> predicate) {
+            return filter(predicate).first();
+        }
+
+        /**
+         * Execute the query until the first element.
+         *
+         * @return The first element, or {@code null} if none.
+         */
+        public E first() {
+            final List<E> r = new ArrayList<E>(1);
+            forEach(new Visitor<E>() { @Override public boolean visit(E e) {
+                r.add(e);
+                return false;
+            }});
+            return r.isEmpty() ? null : r.get(0);
+        }
+
+        /**
+         * Execute the query, counting the elements.
+         *
+         * @return
+         */
+        public int count() {
+            final int[] r = {0};
+            forEach(new Visitor<E>() { @Override public boolean visit(E e) {
+                r[0]++;
+                return true;
+            }});
+            return r[0];
+        }
+    }
+
+    /**
+     * <p>Compiled filter of methods and fields, on their modifiers, name, annotations, signature and declaring class.</p>
+     *
+     * <p>Unlike a composition of {@link Predicates} (e.g. {@code and(publicMethod(), not(staticMethod()))}), a query checks
+     * all its modifiers in one integer comparison and all its annotations against the (cached) annotation bits of the
+     * member, in a single {@link #apply(Member)}. It can be used wherever a {@code Predicate<Method>} or
+     * {@code Predicate<Field>} is accepted:</p>
+     * <pre>
+     * onClass(c).onMethods().filter(MemberQuery.builder().withModifiers(PUBLIC).withoutModifiers(STATIC).named("get.*").build());
+     * </pre>
+     *
+     * <p>Queries are immutable and thread-safe.</p>
+     */
+    public static final class MemberQuery implements Predicate<Member> {
+
+        /**
+         * Builder of {@link MemberQuery}, where every criterion is optional.
+         */
+        public static final class Builder {
+
+            private int modifiersMask;
+            private int modifiers;
+            private NameMatcher name;
+            private final Set<Class<? extends Annotation>> annotations = new LinkedHashSet<Class<? extends Annotation>>();
+            private final Set<Class<? extends Annotation>> metaAnnotations = new LinkedHashSet<Class<? extends Annotation>>();
+            private Class<?> type;
+            private Class<?>[] parameterTypes;
+            private Class<?> declaringClass;
+
+            private Builder() {}
+
+            /**
+             * @param modifiers Modifiers (as in {@link java.lang.reflect.Modifier}) the member must all have.
+             * @return
+             */
+            public Builder withModifiers(int modifiers) {
+                this.modifiersMask |= modifiers;
+                this.modifiers |= modifiers;
+                return this;
+            }
+
+            /**
+             * @param modifiers Modifiers (as in {@link java.lang.reflect.Modifier}) the member must have none of.
+             * @return
+             */
+            public Builder withoutModifiers(int modifiers) {
+                this.modifiersMask |= modifiers;
+                this.modifiers &= ~modifiers;
+                return this;
+            }
+
+            /**
+             * @param regex Regular expression the name must match.
+             * @return
+             */
+            public Builder named(String regex) {
+                this.name = NameMatcher.of(regex);
+                return this;
+            }
+
+            /**
+             * @param pattern Pattern the name must match.
+             * @return
+             */
+            public Builder named(Pattern pattern) {
+                this.name = NameMatcher.of(pattern);
+                return this;
+            }
+
+            /**
+             * @param annotations Annotations the member must all be annotated with.
+             * @return
+             */
+            @SafeVarargs
+            public final Builder annotatedWith(Class<? extends Annotation>... annotations) {
+                for (Class<? extends Annotation> annotation: annotations) {
+                    this.annotations.add(annotation);
+                }
+                return this;
+            }
+
+            /**
+             * @param annotations Annotations the member must all be annotated with, directly or through meta-annotations.
+             * @return
+             * @see Predicates#classMetaAnnotatedWith(Class)
+             */
+            @SafeVarargs
+            public final Builder metaAnnotatedWith(Class<? extends Annotation>... annotations) {
+                for (Class<? extends Annotation> annotation: annotations) {
+                    this.metaAnnotations.add(annotation);
+                }
+                return this;
+            }
+
+            /**
+             * @param type Return type of a method, or type of a field.
+             * @return
+             */
+            public Builder ofType(Class<?> type) {
+                this.type = type;
+                return this;
+            }
+
+            /**
+             * @param parameterTypes Parameter types of a method. Fields never match.
+             * @return
+             */
+            public Builder withParameterTypes(Class<?>... parameterTypes) {
+                this.parameterTypes = parameterTypes.clone();
+                return this;
+            }
+
+            /**
+             * @param declaringClass Class the member must be declared by.
+             * @return
+             */
+            public Builder declaredBy(Class<?> declaringClass) {
+                this.declaringClass = declaringClass;
+                return this;
+            }
+
+            public MemberQuery build() {
+                return new MemberQuery(this);
+            }
+        }
+
+        private final int modifiersMask;
+        private final int modifiers;
+        private final NameMatcher name;
+        private final BitSet annotations;
+        private final BitSet metaAnnotations;
+
+        /**
+         * Annotation types of the bits, referenced so that their bits aren't reassigned, see {@link AnnotationBits}.
+         */
+        private final ImmutableSet<Class<? extends Annotation>> annotationTypes;
+        private final Class<?> type;
+        private final Class<?>[] parameterTypes;
+        private final Class<?> declaringClass;
+
+        private MemberQuery(Builder b) {
+            this.modifiersMask = b.modifiersMask;
+            this.modifiers = b.modifiers;
+            this.name = b.name;
+            this.annotations = b.annotations.isEmpty() ? null : AnnotationBits.of(b.annotations);
+            this.metaAnnotations = b.metaAnnotations.isEmpty() ? null : AnnotationBits.of(b.metaAnnotations);
+            this.annotationTypes = ImmutableSet.<Class<? extends Annotation>>builder().addAll(b.annotations).addAll(b.metaAnnotations).build();
+            this.type = b.type;
+            this.parameterTypes = b.parameterTypes;
+            this.declaringClass = b.declaringClass;
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        /**
+         * Query of the modifiers of {@link OnClass#onMethods(boolean, boolean, boolean, boolean)} and
+         * {@link OnClass#onFields(boolean, boolean, boolean, boolean)}.
+         */
+        static MemberQuery of(boolean includeNonPublic, boolean includeStatic) {
+            final Builder b = builder();
+            if (!includeNonPublic) {
+                b.withModifiers(Modifier.PUBLIC);
+            }
+            return (includeStatic ? b.withModifiers(Modifier.STATIC) : b.withoutModifiers(Modifier.STATIC)).build();
+        }
+
+        @Override
+        public boolean apply(@Nullable Member m) {
+
+            if (null == m || (m.getModifiers() & modifiersMask) != modifiers) {
+                return false;
+            }
+            if (null != declaringClass && declaringClass != m.getDeclaringClass()) {
+                return false;
+            }
+            if (null != name && !name.matches(m.getName())) {
+                return false;
+            }
+            if (null != type && type != (m instanceof Method ? ((Method) m).getReturnType() : ((Field) m).getType())) {
+                return false;
+            }
+            if (null != parameterTypes && !(m instanceof Method && Arrays.equals(parameterTypes, ((Method) m).getParameterTypes()))) {
+                return false;
+            }
+            if (null != annotations && !AnnotationBits.containsAll(AnnotationBits.of((AnnotatedElement) m), annotations)) {
+                return false;
+            }
+            return null == metaAnnotations || AnnotationBits.containsAll(AnnotationBits.metaOf((AnnotatedElement) m), metaAnnotations);
+        }
+    }
+
+    /**
+     * <p>Listener of the operations of {@link Reflects}, e.g. to report metrics or traces. Registered globally with
+     * {@link Reflects#setListener(Listener)}.</p>
+     *
+     * <p>Methods do nothing by default, override those needed. They're called synchronously by the thread performing the
+     * operation, and must be thread-safe. When no listener is set, operations are not timed nor counted at all.</p>
+     *
+     * <p>Cache hits and misses are reported for the {@link Operation operations} that look up a cache: the metadata of the
+     * class for {@link Operation#ON_CLASS}, the cached query results for {@link Operation#ON_FIELDS} and
+     * {@link Operation#ON_METHODS}, and the declared annotations of the classes walked for
+     * {@link Operation#ON_ANNOTATIONS} (a hit if all of them were resolved already). Other cached lookups, e.g. of
+     * {@link OnClass#onProperties() properties} or {@link OnClass#constructor(Class[]) constructors}, are resolved once
+     * per class and not reported.</p>
+     *
+     * @see Slf4jListener
+     */
+    public static abstract class Listener {
+
+        /**
+         * Operations reported.
+         */
+        public static enum Operation {
+            ON_CLASS, ON_METHODS, ON_FIELDS, ON_ANNOTATIONS, FILTER, SEEK
+        }
+
+        static final Listener NONE = new Listener() {};
+
+        protected Listener() {}
+
+        /**
+         * @param operation
+         * @param elapsedNanos
+         * @param classes Number of classes walked.
+         * @param members Number of members (or elements, for {@link Operation#FILTER} and {@link Operation#SEEK}) scanned.
+         */
+        public void onOperation(Operation operation, long elapsedNanos, int classes, int members) {}
+
+        /**
+         * @param operation Operation whose result was cached.
+         */
+        public void onCacheHit(Operation operation) {}
+
+        /**
+         * @param operation Operation whose result was not cached.
+         */
+        public void onCacheMiss(Operation operation) {}
     }
 
-    public static class OnMethod implements HasAnnotations {
+    /**
+     * {@link Listener} logging operations (at {@code TRACE}) and cache hits and misses (at {@code DEBUG}) to SLF4J.
+     */
+    public static class Slf4jListener extends Listener {
+
+        private final org.slf4j.Logger logger;
 
-        Method method;
+        public Slf4jListener() {
+            this(org.slf4j.LoggerFactory.getLogger(Reflects.class));
+        }
 
-        OnMethod(Method method) {
-            this.method = method;
+        public Slf4jListener(org.slf4j.Logger logger) {
+            this.logger = logger;
         }
 
         @Override
-        public OnAnnotations onAnnotations() {
-            return onAnnotations(true);
+        public void onOperation(Operation operation, long elapsedNanos, int classes, int members) {
+            if (logger.isTraceEnabled()) {
+                logger.trace("{} took {}us, {} classes and {} members scanned", new Object[] {operation, elapsedNanos / 1000, classes, members});
+            }
         }
 
         @Override
-        public OnAnnotations onAnnotations(boolean includeInherited) {
-            if (includeInherited) {
-                List<Annotation> r = new ArrayList<Annotation>();
-                for (Method m: Reflects.onClass(method.getDeclaringClass()).onMethods(true, !isPublic(method.getModifiers()), isStatic(method.getModifiers()), true).get()) {
-                    exportElements(r, m.getDeclaredAnnotations());
-                }
-                return Reflects.onAnnotations(r);
-            } else {
-                return Reflects.onAnnotations(method.getDeclaredAnnotations());
-            }
+        public void onCacheHit(Operation operation) {
+            logger.debug("{} cache hit", operation);
         }
-    }
 
-    public static class OnMethods implements AnnotatableCollection<Method>, HasAnnotations {
+        @Override
+        public void onCacheMiss(Operation operation) {
+            logger.debug("{} cache miss", operation);
+        }
+    }
 
-        List<Method> methods;
+    /**
+     * Snapshot of the statistics of the cache of query results.
+     *
+     * @see Reflects#getCacheStats()
+     */
+    public static final class CacheStats {
 
-        OnMethods(List<Method> methods) {
-            this.methods = methods;
-        }
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long size;
+        private final long maximumSize;
 
-        @Override
-        public OnAnnotations onAnnotations() {
-            return onAnnotations(true);
+        CacheStats(long hitCount, long missCount, long evictionCount, long size, long maximumSize) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.size = size;
+            this.maximumSize = maximumSize;
         }
 
-        @Override
-        public OnAnnotations onAnnotations(boolean includeInherited) {
-            Set<Annotation> r = new LinkedHashSet<Annotation>();
-            for (Method m: methods) {
-                r.addAll(Reflects.onMethod(m).onAnnotations(includeInherited).get());
-            }
-            return Reflects.onAnnotations(new ArrayList<Annotation>(r));
+        public long getHitCount() {
+            return hitCount;
         }
 
-        public <O> List<O> transform(Function<? super Method, O> f) {
-            return transformAsList(methods, f);
+        public long getMissCount() {
+            return missCount;
         }
 
-        public List<Method> get() {
-            return methods;
+        /**
+         * @return Number of results evicted to keep the cache within its maximum size.
+         */
+        public long getEvictionCount() {
+            return evictionCount;
         }
 
-        @Override
-        public Method seek(Predicate<? super Method> predicate) {
-            return seekElement(methods, predicate);
+        /**
+         * @return Number of results cached.
+         */
+        public long getSize() {
+            return size;
         }
 
-        public List<Method> filter(final Class<? extends Annotation> a) {
-            return filterAsList(methods, a);
+        public long getMaximumSize() {
+            return maximumSize;
         }
 
-        public List<Method> filter(final String regex) {
-            return filter(new Predicate<Method>() { @Override public boolean apply(@Nullable Method input) {
-                return input != null && input.getName().matches(regex);
-            }});
+        /**
+         * @return Ratio of hits to requests, {@code 1} if none.
+         */
+        public double getHitRate() {
+            final long requests = hitCount + missCount;
+            return 0 == requests ? 1 : (double) hitCount / requests;
         }
 
-        public List<Method> filter(Predicate<? super Method> predicate) {
-            return filterAsList(methods, predicate);
+        @Override
+        public String toString() {
+            return "CacheStats{hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount + ", size=" + size + ", maximumSize=" + maximumSize + '}';
         }
     }
 
-    public static class OnAnnotations implements OnCollection<Annotation> {
+    /**
+     * <p>Index of classes, methods and fields by the annotations they carry, directly or through meta-annotations (i.e.
+     * annotations of their annotations' types, transitively).</p>
+     *
+     * <p>The index is built once from a set of classes, indexing the classes themselves and all the fields and methods they
+     * declare. Lookups are then constant-time, and their results listed in the order of the classes indexed.</p>
+     *
+     * @see OnClasses#indexAnnotations()
+     * @see OnPackages#indexAnnotations()
+     */
+    public static final class AnnotationIndex {
 
-        private List<Annotation> annotations;
+        private final ImmutableListMultimap<Class<? extends Annotation>, Class<?>> classes;
+        private final ImmutableListMultimap<Class<? extends Annotation>, Method> methods;
+        private final ImmutableListMultimap<Class<? extends Annotation>, Field> fields;
 
-        OnAnnotations(List<Annotation> annotations) {
-            this.annotations = annotations;
+        AnnotationIndex(Iterable<Class<?>> classes) {
+
+            final ImmutableListMultimap.Builder<Class<? extends Annotation>, Class<?>> c = ImmutableListMultimap.builder();
+            final ImmutableListMultimap.Builder<Class<? extends Annotation>, Method> m = ImmutableListMultimap.builder();
+            final ImmutableListMultimap.Builder<Class<? extends Annotation>, Field> f = ImmutableListMultimap.builder();
+
+            for (Class<?> type: classes) {
+                final ClassMetadata metadata = ClassMetadata.of(type);
+                index(c, type, metadata.declaredAnnotations());
+                for (Method method: metadata.declaredMethods()) {
+                    index(m, method, asList(method.getDeclaredAnnotations()));
+                }
+                for (Field field: metadata.declaredFields()) {
+                    index(f, field, asList(field.getDeclaredAnnotations()));
+                }
+            }
+
+            this.classes = c.build();
+            this.methods = m.build();
+            this.fields = f.build();
         }
 
-        @Override
-        public List<Annotation> get() {
-            return annotations;
+        private static <E> void index(ImmutableListMultimap.Builder<Class<? extends Annotation>, E> index, E element, List<Annotation> annotations) {
+            if (annotations.isEmpty()) {
+                return;
+            }
+            final Set<Class<? extends Annotation>> types = new LinkedHashSet<Class<? extends Annotation>>();
+            for (Annotation a: annotations) {
+                types.addAll(ClassMetadata.of(a.annotationType()).annotationClosure());
+            }
+            for (Class<? extends Annotation> type: types) {
+                index.put(type, element);
+            }
         }
 
-        @Override
-        public Annotation seek(Predicate<? super Annotation> predicate) {
-            return seekElement(annotations, predicate);
+        /**
+         * Get the annotation types indexed, including meta-annotation types.
+         *
+         * @return
+         */
+        public Set<Class<? extends Annotation>> getAnnotationTypes() {
+            return ImmutableSet.<Class<? extends Annotation>>builder().addAll(classes.keySet()).addAll(methods.keySet()).addAll(fields.keySet()).build();
         }
 
-        @Override
-        public List<Annotation> filter(final String regex) {
-            return filter(new Predicate<Annotation>() { @Override public boolean apply(@Nullable Annotation a) {
-                return a != null && a.annotationType().getName().matches(regex);
-            }});
+        /**
+         * Act on the classes annotated, directly or through meta-annotations, with the specified annotation.
+         *
+         * @param a
+         * @return
+         */
+        public OnClasses onClasses(Class<? extends Annotation> a) {
+            return Reflects.onClasses(classes.get(a));
         }
 
-        @Override
-        public List<Annotation> filter(Predicate<? super Annotation> predicate) {
-            return filterAsList(annotations, predicate);
+        /**
+         * Act on the methods annotated, directly or through meta-annotations, with the specified annotation.
+         *
+         * @param a
+         * @return
+         */
+        public OnMethods onMethods(Class<? extends Annotation> a) {
+            return Reflects.onMethods(methods.get(a));
         }
 
-        @Override
-        public <O> List<O> transform(Function<? super Annotation, O> f) {
-            return transformAsList(annotations, f);
+        /**
+         * Act on the fields annotated, directly or through meta-annotations, with the specified annotation.
+         *
+         * @param a
+         * @return
+         */
+        public OnFields onFields(Class<? extends Annotation> a) {
+            return Reflects.onFields(fields.get(a));
         }
     }
 
@@ -621,6 +3353,10 @@ public abstract class Reflects {
      */
     public static final class Predicates {
 
+        private static final Predicate<ClassFile> CLASS_FILE_ANNOTATED = new Predicate<ClassFile>() { @Override public boolean apply(@Nullable ClassFile f) {
+            return null != f && (!f.getAnnotationNames().isEmpty() || !f.getMemberAnnotationNames().isEmpty());
+        }};
+
         private static final Predicate<Field> PUBLIC_FIELD = new Predicate<Field>() { @Override public boolean apply(@Nullable Field f) {
             return null != f && isPublic(f.getModifiers());
         }};
@@ -634,6 +3370,10 @@ public abstract class Reflects {
             return null != field && isStatic(field.getModifiers());
         }};
 
+        private static final Predicate<Constructor<?>> PUBLIC_CONSTRUCTOR = new Predicate<Constructor<?>>() { @Override public boolean apply(@Nullable Constructor<?> c) {
+            return null != c && isPublic(c.getModifiers());
+        }};
+
         private static final Predicate<Method> PUBLIC_METHOD = new Predicate<Method>() { @Override public boolean apply(@Nullable Method m) {
             return null != m && isPublic(m.getModifiers());
         }};
@@ -653,9 +3393,63 @@ public abstract class Reflects {
             }};
         }
 
+        /**
+         * <p>Predicate of classes annotated with the annotation, directly or through meta-annotations (i.e. annotated with
+         * an annotation whose type is annotated with it, transitively), e.g. stereotypes.</p>
+         *
+         * <p>The meta-annotations of each annotation type are resolved once, and those of each class once, so that the
+         * predicate is a bit set lookup.</p>
+         *
+         * @param annotation
+         * @return
+         */
+        public static Predicate<Class<?>> classMetaAnnotatedWith(final Class<? extends Annotation> annotation) {
+            return metaAnnotatedWith(annotation);
+        }
+
+        private static <E extends AnnotatedElement> Predicate<E> metaAnnotatedWith(final Class<? extends Annotation> annotation) {
+            final int id = AnnotationBits.id(annotation);
+            return new Predicate<E>() {
+                @SuppressWarnings("unused")
+                private final Class<?> type = annotation; // Holds the id, see AnnotationBits.
+                @Override public boolean apply(@Nullable E e) {
+                    return null != e && AnnotationBits.metaOf(e).get(id);
+                }
+            };
+        }
+
         public static Predicate<Class<?>> classOfName(final String regex) {
+            return classOfName(NameMatcher.of(regex));
+        }
+
+        public static Predicate<Class<?>> classOfName(final Pattern pattern) {
+            return classOfName(NameMatcher.of(pattern));
+        }
+
+        private static Predicate<Class<?>> classOfName(final NameMatcher matcher) {
             return new Predicate<Class<?>>() { @Override public boolean apply(@Nullable Class<?> c) {
-                return null != c && c.getName().matches(regex);
+                return null != c && matcher.matches(c.getName());
+            }};
+        }
+
+        public static Predicate<ClassFile> classFileAnnotatedWith(final Class<? extends Annotation> annotation) {
+            final String name = annotation.getName();
+            return new Predicate<ClassFile>() { @Override public boolean apply(@Nullable ClassFile f) {
+                return null != f && f.getAnnotationNames().contains(name);
+            }};
+        }
+
+        /**
+         * @return Predicate matching class files carrying annotations, or declaring members carrying annotations.
+         */
+        public static Predicate<ClassFile> classFileAnnotated() {
+            return CLASS_FILE_ANNOTATED;
+        }
+
+        public static Predicate<ClassFile> classFileOfName(final String regex) {
+            final NameMatcher matcher = NameMatcher.of(regex);
+            return new Predicate<ClassFile>() { @Override public boolean apply(@Nullable ClassFile f) {
+                return null != f && matcher.matches(f.getName());
             }};
         }
 
@@ -665,9 +3459,26 @@ public abstract class Reflects {
             }};
         }
 
+        /**
+         * @param annotation
+         * @return Predicate of fields annotated with the annotation, directly or through meta-annotations.
+         * @see #classMetaAnnotatedWith(Class)
+         */
+        public static Predicate<Field> fieldMetaAnnotatedWith(final Class<? extends Annotation> annotation) {
+            return metaAnnotatedWith(annotation);
+        }
+
         public static Predicate<Field> fieldOfName(final String regex) {
+            return fieldOfName(NameMatcher.of(regex));
+        }
+
+        public static Predicate<Field> fieldOfName(final Pattern pattern) {
+            return fieldOfName(NameMatcher.of(pattern));
+        }
+
+        private static Predicate<Field> fieldOfName(final NameMatcher matcher) {
             return new Predicate<Field>() { @Override public boolean apply(@Nullable Field m) {
-                return null != m && m.getName().matches(regex);
+                return null != m && matcher.matches(m.getName());
             }};
         }
 
@@ -693,9 +3504,26 @@ public abstract class Reflects {
             }};
         }
 
+        /**
+         * @param annotation
+         * @return Predicate of methods annotated with the annotation, directly or through meta-annotations.
+         * @see #classMetaAnnotatedWith(Class)
+         */
+        public static Predicate<Method> methodMetaAnnotatedWith(final Class<? extends Annotation> annotation) {
+            return metaAnnotatedWith(annotation);
+        }
+
         public static Predicate<Method> methodOfName(final String regex) {
+            return methodOfName(NameMatcher.of(regex));
+        }
+
+        public static Predicate<Method> methodOfName(final Pattern pattern) {
+            return methodOfName(NameMatcher.of(pattern));
+        }
+
+        private static Predicate<Method> methodOfName(final NameMatcher matcher) {
             return new Predicate<Method>() { @Override public boolean apply(@Nullable Method m) {
-                return null != m && m.getName().matches(regex);
+                return null != m && matcher.matches(m.getName());
             }};
         }
 
@@ -705,16 +3533,86 @@ public abstract class Reflects {
 
         public static Predicate<Method> methodOfSignature(final String name, final Class<?> returnType, final Class... parameterTypes) {
             return new Predicate<Method>() { @Override public boolean apply(@Nullable Method m) {
-                if (null != m && name.equals(m.getName()) && returnType.equals(m.getReturnType()) && parameterTypes.length == m.getParameterTypes().length) {
-                    final Class<?>[] p = m.getParameterTypes();
-                    for (int i = 0; i < p.length; i++) {
-                        if (!parameterTypes[i].equals(p[i])) {
-                            return false;
-                        }
-                    }
-                    return true;
+                return null != m && name.equals(m.getName()) && returnType.equals(m.getReturnType()) && Arrays.equals(parameterTypes, m.getParameterTypes());
+            }};
+        }
+
+        public static Predicate<Constructor<?>> constructorAnnotatedWith(final Class<? extends Annotation> annotation) {
+            return new Predicate<Constructor<?>>() { @Override public boolean apply(@Nullable Constructor<?> c) {
+                return null != c && c.isAnnotationPresent(annotation);
+            }};
+        }
+
+        /**
+         * @param annotation
+         * @return Predicate of constructors annotated with the annotation, directly or through meta-annotations.
+         * @see #classMetaAnnotatedWith(Class)
+         */
+        public static Predicate<Constructor<?>> constructorMetaAnnotatedWith(final Class<? extends Annotation> annotation) {
+            return metaAnnotatedWith(annotation);
+        }
+
+        public static Predicate<Constructor<?>> constructorOfName(final String regex) {
+            return constructorOfName(NameMatcher.of(regex));
+        }
+
+        public static Predicate<Constructor<?>> constructorOfName(final Pattern pattern) {
+            return constructorOfName(NameMatcher.of(pattern));
+        }
+
+        private static Predicate<Constructor<?>> constructorOfName(final NameMatcher matcher) {
+            return new Predicate<Constructor<?>>() { @Override public boolean apply(@Nullable Constructor<?> c) {
+                return null != c && matcher.matches(c.getName());
+            }};
+        }
+
+        public static Predicate<Constructor<?>> constructorOfParameterTypes(final Class<?>... parameterTypes) {
+            return new Predicate<Constructor<?>>() { @Override public boolean apply(@Nullable Constructor<?> c) {
+                return null != c && Arrays.equals(parameterTypes, c.getParameterTypes());
+            }};
+        }
+
+        public static Predicate<Constructor<?>> publicConstructor() {
+            return PUBLIC_CONSTRUCTOR;
+        }
+
+        /**
+         * @param annotation
+         * @return Predicate of properties annotated with the annotation, on their getter, setter or field.
+         */
+        public static Predicate<Property> propertyAnnotatedWith(final Class<? extends Annotation> annotation) {
+            return new Predicate<Property>() { @Override public boolean apply(@Nullable Property p) {
+                return null != p && p.isAnnotationPresent(annotation);
+            }};
+        }
+
+        /**
+         * @param annotation
+         * @return Predicate of properties annotated with the annotation, directly or through meta-annotations.
+         * @see #classMetaAnnotatedWith(Class)
+         */
+        public static Predicate<Property> propertyMetaAnnotatedWith(final Class<? extends Annotation> annotation) {
+            final int id = AnnotationBits.id(annotation);
+            return new Predicate<Property>() {
+                @SuppressWarnings("unused")
+                private final Class<?> type = annotation; // Holds the id, see AnnotationBits.
+                @Override public boolean apply(@Nullable Property p) {
+                    return null != p && p.metaAnnotationBits().get(id);
                 }
-                return false;
+            };
+        }
+
+        public static Predicate<Property> propertyOfName(final String regex) {
+            return propertyOfName(NameMatcher.of(regex));
+        }
+
+        public static Predicate<Property> propertyOfName(final Pattern pattern) {
+            return propertyOfName(NameMatcher.of(pattern));
+        }
+
+        private static Predicate<Property> propertyOfName(final NameMatcher matcher) {
+            return new Predicate<Property>() { @Override public boolean apply(@Nullable Property p) {
+                return null != p && matcher.matches(p.getName());
             }};
         }
 
@@ -778,7 +3676,20 @@ public abstract class Reflects {
      * @return
      */
     public static OnClass onClass(Class<?> c) {
-        return new OnClass(c);
+        final Listener l = listener;
+        if (Listener.NONE == l) {
+            return new OnClass(c);
+        }
+        final long start = System.nanoTime();
+        final boolean cached = ClassMetadata.isCached(c);
+        final OnClass r = new OnClass(c);
+        if (cached) {
+            l.onCacheHit(Listener.Operation.ON_CLASS);
+        } else {
+            l.onCacheMiss(Listener.Operation.ON_CLASS);
+        }
+        l.onOperation(Listener.Operation.ON_CLASS, System.nanoTime() - start, 1, 0);
+        return r;
     }
 
     /**
@@ -823,6 +3734,79 @@ public abstract class Reflects {
         return new OnMethods(methods);
     }
 
+    public static OnConstructor onConstructor(Constructor<?> constructor) {
+        return new OnConstructor(constructor);
+    }
+
+    public static OnConstructors onConstructors(Constructor<?>... constructors) {
+        return onConstructors(asList(constructors));
+    }
+
+    public static OnConstructors onConstructors(List<Constructor<?>> constructors) {
+        return new OnConstructors(constructors);
+    }
+
+    /**
+     * Get the (cached) instantiator of the constructor of the given parameter types declared by a class.
+     *
+     * @param type
+     * @param parameterTypes
+     * @param <T>
+     * @return
+     * @throws IllegalArgumentException If the class declares no such constructor, or it can't be made accessible.
+     * @see OnConstructor#instantiator()
+     */
+    public static <T> Instantiator<T> instantiator(Class<T> type, Class<?>... parameterTypes) {
+        final ClassMetadata metadata = ClassMetadata.of(type);
+        @SuppressWarnings("unchecked")
+        final Constructor<T> r = (Constructor<T>) metadata.declaredConstructor(parameterTypes);
+        if (null == r) {
+            throw new IllegalArgumentException("No constructor of " + type.getName() + " taking " + Arrays.toString(parameterTypes));
+        }
+        return metadata.instantiator(r);
+    }
+
+    public static OnProperties onProperties(Property... properties) {
+        return onProperties(asList(properties));
+    }
+
+    public static OnProperties onProperties(List<Property> properties) {
+        return new OnProperties(properties);
+    }
+
+    /**
+     * Get the (cached) copier of properties and fields from a class to another.
+     *
+     * @param source
+     * @param target
+     * @param <S>
+     * @param <T>
+     * @return
+     * @see #copier(Class, Class, boolean)
+     */
+    public static <S, T> Copier<S, T> copier(Class<S> source, Class<T> target) {
+        return copier(source, target, true);
+    }
+
+    /**
+     * Get the (cached) copier of properties, and fields if included, from a class to another. Copiers between classes of
+     * unrelated class loaders (neither an ancestor of the other) are not cached, as the cache would keep either loader
+     * alive.
+     *
+     * @param source
+     * @param target
+     * @param includeFields Copy the fields too, public or not, including those of properties without getter (or setter).
+     *                      If {@code false}, only the properties having a getter in the source and a setter in the
+     *                      target are copied.
+     * @param <S>
+     * @param <T>
+     * @return
+     * @see Copier
+     */
+    public static <S, T> Copier<S, T> copier(Class<S> source, Class<T> target, boolean includeFields) {
+        return ClassMetadata.copier(source, target, includeFields);
+    }
+
     public static OnAnnotations onAnnotations(final Annotation... annotations) {
         return onAnnotations(asList(annotations));
     }
@@ -831,17 +3815,98 @@ public abstract class Reflects {
         return new OnAnnotations(annotations);
     }
 
-    public static OnPackage onPackage(String pck) { throw new UnsupportedOperationException(); }
+    /**
+     * <p>Drop the cached metadata (hierarchy, declared members and annotations) of a class, e.g. after it has been redefined.
+     * It will be resolved again on the next {@link #onClass(Class)}.</p>
+     *
+     * <p>The metadata of its sub-classes (and implementations, if an interface) is dropped too, as it includes the members
+     * of the class. Copiers from or to the class cached with another class are kept, see {@link #clearCache()}.</p>
+     *
+     * @param c
+     */
+    public static void invalidate(Class<?> c) {
+        ClassMetadata.invalidate(c);
+    }
+
+    /**
+     * Drop the cached metadata of all classes.
+     *
+     * @see #invalidate(Class)
+     */
+    public static void clearCache() {
+        ClassMetadata.clear();
+    }
+
+    /**
+     * Set the listener of the operations, e.g. {@link Slf4jListener}.
+     *
+     * @param l {@code null} to remove the listener.
+     */
+    public static void setListener(@Nullable Listener l) {
+        listener = null == l ? Listener.NONE : l;
+    }
+
+    /**
+     * Get the statistics of the cache of query results (e.g. of {@link OnClass#onMethods()}), to size it with the
+     * {@code my.jug.reflects.cache.maximumSize} system property.
+     *
+     * @return
+     */
+    public static CacheStats getCacheStats() {
+        return new CacheStats(ResultCache.HITS.get(), ResultCache.MISSES.get(), ResultCache.EVICTIONS.get(), ResultCache.size(), ResultCache.MAXIMUM_SIZE);
+    }
+
+    /**
+     * @see OnPackages
+     * @param pkg
+     * @return
+     */
+    public static OnPackage onPackage(String pkg) {
+        return new OnPackage(defaultClassLoader(), pkg);
+    }
+
+    /**
+     * @see OnPackages
+     * @param pkgs
+     * @return
+     */
+    public static OnPackages onPackages(String... pkgs) {
+        return onPackages(defaultClassLoader(), pkgs);
+    }
+
+    /**
+     * @see OnPackages
+     * @param classLoader Class loader whose class path is scanned, and used to load the classes found.
+     * @param pkgs
+     * @return
+     */
+    public static OnPackages onPackages(ClassLoader classLoader, String... pkgs) {
+        return new OnPackages(classLoader, asList(pkgs), null, null, null);
+    }
+
+    private static ClassLoader defaultClassLoader() {
+        final ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        return null != cl ? cl : Reflects.class.getClassLoader();
+    }
 
-    public static OnPackages onPackages(String... pkgs) { throw new UnsupportedOperationException(); }
+    /**
+     * Visit the elements of a random access list, by index rather than through an iterator.
+     */
+    private static <E> boolean visitElements(List<E> l, Visitor<? super E> v) {
+        for (int i = 0; i < l.size(); i++) {
+            if (!v.visit(l.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
 
     private static <E> boolean exportElements(Collection<? super E> c, E... elements) {
         return Collections.addAll(c, elements);
     }
 
     private static <I, O> List<O> transformAsList(List<I> l, final Function<? super I, O> f) {
-        java.util.Collection r = Collections2.transform(l, f);
-        return r instanceof List ? (List<O>) r : new ArrayList<O>(r);
+        return Collections.unmodifiableList(new ArrayList<O>(Collections2.transform(l, f)));
     }
     
     private static <E> List<E> filterAsList(final List<E> l, final Class<? extends Annotation> a) {
@@ -851,16 +3916,31 @@ public abstract class Reflects {
     }
 
     private static <E> List<E> filterAsList(final List<E> l, final Predicate<? super E> p) {
-        java.util.Collection r = Collections2.filter(l, p);
-        return r instanceof List ? (List<E>) r : new ArrayList<E>(r);
+        final Listener listener = Reflects.listener;
+        if (Listener.NONE == listener) {
+            return ImmutableList.copyOf(Collections2.filter(l, p));
+        }
+        final long start = System.nanoTime();
+        final List<E> r = ImmutableList.copyOf(Collections2.filter(l, p));
+        listener.onOperation(Listener.Operation.FILTER, System.nanoTime() - start, 0, l.size());
+        return r;
     }
 
     private static <E> E seekElement(final Collection<E> c, Predicate<? super E> p) {
+        final Listener listener = Reflects.listener;
+        final long start = Listener.NONE == listener ? 0 : System.nanoTime();
+        int scanned = 0;
+        E r = null;
         for (E e: c) {
+            scanned++;
             if (p.apply(e)) {
-                return e;
+                r = e;
+                break;
             }
         }
-        return null;
+        if (Listener.NONE != listener) {
+            listener.onOperation(Listener.Operation.SEEK, System.nanoTime() - start, 0, scanned);
+        }
+        return r;
     }
 }
@@ -0,0 +1,172 @@
+package my.jug.reflects;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.common.base.Functions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * <p>Bounded cache of derived query results, e.g. of {@link Reflects.OnClass#onMethods(boolean, boolean, boolean, boolean)},
+ * keeping the most recently used {@link #MAXIMUM_SIZE} results.</p>
+ *
+ * <p>Results are stored in the slots of their {@link ClassMetadata}, so that reads are lock-free and don't pin the class
+ * (the metadata being owned by the class). The eviction order is kept apart, in a size-bounded cache of keys referring to
+ * the metadata weakly: evicting a key empties its slot.</p>
+ *
+ * <p>The maximum size can be set with the {@code my.jug.reflects.cache.maximumSize} system property (default
+ * {@code 4096}). Hits, misses and evictions are counted on striped counters, see {@link Reflects#getCacheStats()}.</p>
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+final class ResultCache {
+
+    static final int MAXIMUM_SIZE = Integer.getInteger("my.jug.reflects.cache.maximumSize", 4096);
+
+    static final int FIELDS = 0;
+
+    static final int METHODS = 16;
+
+    /**
+     * Number of slots per class, i.e. the flag combinations of fields and methods.
+     */
+    static final int SLOTS = 32;
+
+    static final Counter HITS = new Counter();
+    static final Counter MISSES = new Counter();
+    static final Counter EVICTIONS = new Counter();
+
+    private static final Cache<Key, Boolean> LRU = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE)
+            .removalListener(new RemovalListener<Key, Boolean>() { @Override public void onRemoval(RemovalNotification<Key, Boolean> n) {
+                if (n.wasEvicted()) {
+                    EVICTIONS.increment();
+                }
+                n.getKey().clear();
+            }})
+            .build(CacheLoader.from(Functions.constant(Boolean.TRUE)));
+
+    private ResultCache() {}
+
+    /**
+     * @param kind {@link #FIELDS} or {@link #METHODS}.
+     * @return The slot of a query.
+     */
+    static int slot(int kind, boolean includeInherited, boolean includeNonPublic, boolean includeStatic, boolean includeInterfaces) {
+        return kind | (includeInherited ? 8 : 0) | (includeNonPublic ? 4 : 0) | (includeStatic ? 2 : 0) | (includeInterfaces ? 1 : 0);
+    }
+
+    /**
+     * @param metadata
+     * @param slot
+     * @return The cached result, or {@code null} if none.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> ImmutableList<E> get(ClassMetadata metadata, int slot) {
+        final Entry e = metadata.results.get(slot);
+        if (null == e) {
+            MISSES.increment();
+            return null;
+        }
+        HITS.increment();
+        LRU.asMap().get(e.key); // Touch
+        return (ImmutableList<E>) e.result;
+    }
+
+    static void put(ClassMetadata metadata, int slot, ImmutableList<?> result) {
+        final Key key = new Key(metadata, slot);
+        metadata.results.set(slot, new Entry(key, result));
+        LRU.asMap().put(key, Boolean.TRUE);
+    }
+
+    /**
+     * Drop the results of a metadata, e.g. once invalidated.
+     *
+     * @param metadata
+     */
+    static void purge(ClassMetadata metadata) {
+        final AtomicReferenceArray<Entry> results = metadata.results;
+        for (int i = 0; i < SLOTS; i++) {
+            final Entry e = results.getAndSet(i, null);
+            if (null != e) {
+                LRU.invalidate(e.key);
+            }
+        }
+    }
+
+    static long size() {
+        return LRU.size();
+    }
+
+    static void clear() {
+        LRU.invalidateAll();
+    }
+
+    static final class Entry {
+
+        final Key key;
+        final ImmutableList<?> result;
+
+        Entry(Key key, ImmutableList<?> result) {
+            this.key = key;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Key of a slot, equal to itself only.
+     */
+    private static final class Key {
+
+        private final WeakReference<ClassMetadata> metadata;
+        private final int slot;
+
+        Key(ClassMetadata metadata, int slot) {
+            this.metadata = new WeakReference<ClassMetadata>(metadata);
+            this.slot = slot;
+        }
+
+        void clear() {
+            final ClassMetadata m = metadata.get();
+            if (null != m) {
+                final AtomicReferenceArray<Entry> results = m.results;
+                final Entry e = results.get(slot);
+                if (null != e && this == e.key) {
+                    results.compareAndSet(slot, e, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counter striped by thread, each stripe on its own cache line, so that threads hitting the cache concurrently don't
+     * contend on a single {@code AtomicLong}.
+     */
+    static final class Counter {
+
+        private static final int STRIPES = 16;
+
+        private static final int PADDING = 8;
+
+        private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+        void increment() {
+            cells.incrementAndGet((int) (Thread.currentThread().getId() & (STRIPES - 1)) * PADDING);
+        }
+
+        long get() {
+            long r = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                r += cells.get(i * PADDING);
+            }
+            return r;
+        }
+    }
+}
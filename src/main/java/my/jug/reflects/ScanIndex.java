@@ -0,0 +1,335 @@
+package my.jug.reflects;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.io.ByteStreams;
+import my.jug.reflects.Reflects.ClassFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Binary index of a package scan, i.e. the {@link ClassFile}s found in each class path root, together with the
+ * fingerprint (size and last modification) each root had when scanned.</p>
+ *
+ * <p>An index {@link #write(File) written} to a file can be {@link #read(File) read} on the next start, and
+ * only the roots whose fingerprint changed rescanned. It can also be generated at build time and shipped as a class path
+ * resource, to be {@link #read(InputStream) read} as is.</p>
+ *
+ * <p>The format is a string table (names are heavily repeated) followed by the packages scanned and the roots, referring
+ * to strings by their index:</p>
+ * <pre>
+ * int magic, int version
+ * int stringCount, { int length, byte[length] utf8 }*
+ * int packageCount, { int package }*
+ * int rootCount, { int path, long size, long modified, int classCount, {
+ *     int name, int modifiers, int superName (-1 if none),
+ *     int interfaceCount, { int name }*, int annotationCount, { int name }*, int memberAnnotationCount, { int name }*
+ * }* }*
+ * </pre>
+ *
+ * @author yclian
+ * @since 1.0.20261016
+ * @version 1.0.20261016
+ */
+final class ScanIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScanIndex.class);
+
+    private static final int MAGIC = 0x52464C58; // RFLX
+
+    private static final int VERSION = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Class path root, as scanned.
+     */
+    static final class Root {
+
+        final File file;
+        final long size;
+        final long modified;
+        final List<ClassFile> classFiles;
+
+        Root(File file, long size, long modified, List<ClassFile> classFiles) {
+            this.file = file;
+            this.size = size;
+            this.modified = modified;
+            this.classFiles = classFiles;
+        }
+
+        boolean matches(Root fingerprint) {
+            return size == fingerprint.size && modified == fingerprint.modified;
+        }
+    }
+
+    final List<String> packages;
+
+    final Map<File, Root> roots;
+
+    ScanIndex(List<String> packages, Collection<Root> roots) {
+        this.packages = Collections.unmodifiableList(new ArrayList<String>(packages));
+        final Map<File, Root> r = new LinkedHashMap<File, Root>();
+        for (Root root: roots) {
+            r.put(root.file, root);
+        }
+        this.roots = Collections.unmodifiableMap(r);
+    }
+
+    /**
+     * Get the class files of the roots, in class path order. When a class is found in several roots, the first one wins.
+     *
+     * @return
+     */
+    List<ClassFile> classFiles() {
+        final Map<String, ClassFile> r = new LinkedHashMap<String, ClassFile>();
+        for (Root root: roots.values()) {
+            for (ClassFile f: root.classFiles) {
+                if (!r.containsKey(f.getName())) {
+                    r.put(f.getName(), f);
+                }
+            }
+        }
+        return new ArrayList<ClassFile>(r.values());
+    }
+
+    /**
+     * Get the class files of the given packages (or their sub-packages), if the index covers them all.
+     *
+     * @param pkgs
+     * @return {@code null} if any of the packages is not covered by the index.
+     */
+    List<ClassFile> classFiles(List<String> pkgs) {
+
+        for (String p: pkgs) {
+            if (null == coveringPackage(p)) {
+                return null;
+            }
+        }
+
+        final List<ClassFile> r = new ArrayList<ClassFile>();
+        for (ClassFile f: classFiles()) {
+            for (String p: pkgs) {
+                if (p.isEmpty() || f.getName().startsWith(p + '.')) {
+                    r.add(f);
+                    break;
+                }
+            }
+        }
+        return r;
+    }
+
+    private String coveringPackage(String pkg) {
+        for (String p: packages) {
+            if (p.isEmpty() || pkg.equals(p) || pkg.startsWith(p + '.')) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read an index from a file. The file is read at once and closed, the index being decoded entirely, so that it can be
+     * rewritten (replaced) right away.
+     *
+     * @param file
+     * @return
+     * @throws IOException If the file can't be read or is not a valid index.
+     */
+    static ScanIndex read(File file) throws IOException {
+        return read(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+    }
+
+    /**
+     * Read an index from a file, if it exists and is valid.
+     *
+     * @param file
+     * @return {@code null} if the file does not exist or is not a valid index.
+     */
+    static ScanIndex readIfValid(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return read(file);
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring invalid scan index " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * @param in
+     * @return
+     * @throws IOException If the stream can't be read or is not a valid index.
+     */
+    static ScanIndex read(InputStream in) throws IOException {
+        return read(ByteBuffer.wrap(ByteStreams.toByteArray(in)));
+    }
+
+    private static ScanIndex read(ByteBuffer b) throws IOException {
+
+        try {
+
+            if (MAGIC != b.getInt() || VERSION != b.getInt()) {
+                throw new IOException("Not a scan index, or of an unsupported version");
+            }
+
+            final String[] strings = new String[b.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                final byte[] utf8 = new byte[b.getInt()];
+                b.get(utf8);
+                strings[i] = new String(utf8, UTF_8);
+            }
+
+            final List<String> packages = readStrings(b, strings);
+
+            final int rootCount = b.getInt();
+            final List<Root> roots = new ArrayList<Root>(rootCount);
+            for (int i = 0; i < rootCount; i++) {
+
+                final File file = new File(strings[b.getInt()]);
+                final long size = b.getLong();
+                final long modified = b.getLong();
+
+                final int classCount = b.getInt();
+                final List<ClassFile> classFiles = new ArrayList<ClassFile>(classCount);
+                for (int j = 0; j < classCount; j++) {
+                    final String name = strings[b.getInt()];
+                    final int modifiers = b.getInt();
+                    final int superName = b.getInt();
+                    classFiles.add(new ClassFile(name, modifiers, -1 == superName ? null : strings[superName],
+                            readStrings(b, strings), readStrings(b, strings), readStrings(b, strings)));
+                }
+
+                roots.add(new Root(file, size, modified, classFiles));
+            }
+
+            return new ScanIndex(packages, roots);
+
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated scan index", e);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupted scan index", e);
+        }
+    }
+
+    private static List<String> readStrings(ByteBuffer b, String[] strings) {
+        final int count = b.getInt();
+        final List<String> r = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            r.add(strings[b.getInt()]);
+        }
+        return r;
+    }
+
+    /**
+     * Write the index to a file, atomically replacing it if it exists.
+     *
+     * @param file
+     * @throws IOException
+     */
+    void write(File file) throws IOException {
+
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (null != parent && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable to create directory " + parent);
+        }
+
+        final File tmp = File.createTempFile(file.getName(), ".tmp", parent);
+        try {
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            try {
+                write(out);
+            } finally {
+                out.close();
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            tmp.delete();
+        }
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+
+        final Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+        for (String p: packages) {
+            intern(strings, p);
+        }
+        for (Root root: roots.values()) {
+            intern(strings, root.file.getPath());
+            for (ClassFile f: root.classFiles) {
+                intern(strings, f.getName());
+                if (null != f.getSuperName()) {
+                    intern(strings, f.getSuperName());
+                }
+                intern(strings, f.getInterfaceNames());
+                intern(strings, f.getAnnotationNames());
+                intern(strings, f.getMemberAnnotationNames());
+            }
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        out.writeInt(strings.size());
+        for (String s: strings.keySet()) {
+            final byte[] utf8 = s.getBytes(UTF_8);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        }
+
+        writeStrings(out, strings, packages);
+
+        out.writeInt(roots.size());
+        for (Root root: roots.values()) {
+            out.writeInt(strings.get(root.file.getPath()));
+            out.writeLong(root.size);
+            out.writeLong(root.modified);
+            out.writeInt(root.classFiles.size());
+            for (ClassFile f: root.classFiles) {
+                out.writeInt(strings.get(f.getName()));
+                out.writeInt(f.getModifiers());
+                out.writeInt(null == f.getSuperName() ? -1 : strings.get(f.getSuperName()));
+                writeStrings(out, strings, f.getInterfaceNames());
+                writeStrings(out, strings, f.getAnnotationNames());
+                writeStrings(out, strings, f.getMemberAnnotationNames());
+            }
+        }
+    }
+
+    private static void intern(Map<String, Integer> strings, Collection<String> values) {
+        for (String s: values) {
+            intern(strings, s);
+        }
+    }
+
+    private static void intern(Map<String, Integer> strings, String s) {
+        if (!strings.containsKey(s)) {
+            strings.put(s, strings.size());
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, Map<String, Integer> strings, Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String s: values) {
+            out.writeInt(strings.get(s));
+        }
+    }
+}
@@ -2,27 +2,53 @@ package my.jug.reflects;
 
 import static com.google.common.base.Predicates.and;
 import static com.google.common.base.Predicates.not;
+import static java.util.Arrays.asList;
 import static my.jug.reflects.Reflects.Functions.*;
 import static my.jug.reflects.Reflects.Predicates.*;
 import static my.jug.reflects.Reflects.onClass;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
 import org.junit.Test;
+import org.junit.runner.JUnitCore;
 
 /**
  * @author yclian
  * @since 1.0.20111104
- * @version 1.0.20120225
+ * @version 1.0.20261016
  */
 public class ReflectsTest {
 
@@ -62,6 +88,157 @@ public class ReflectsTest {
     @SuppressWarnings("foo")
     static class AnnotatedClass {}
 
+    @Retention(RetentionPolicy.RUNTIME)
+    @Annotation("meta")
+    static @interface MetaAnnotation {}
+
+    static class Primitives {
+
+        private byte b;
+        private int i;
+        private long l;
+        private double d;
+        private String s;
+    }
+
+    @MetaAnnotation
+    static class MetaAnnotatedClass {
+
+        @MetaAnnotation
+        String field;
+    }
+
+    static class Base {
+
+        Object value() {
+            return null;
+        }
+    }
+
+    static class Derived extends Base implements Comparable<Derived> {
+
+        @Override
+        String value() {
+            return "";
+        }
+
+        @Override
+        public int compareTo(Derived o) {
+            return 0;
+        }
+    }
+
+    static class Pair {
+
+        final Object left;
+        final Object right;
+
+        public Pair() {
+            this(null, null);
+        }
+
+        @Annotation("pair")
+        Pair(Object left, Object right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    static class Bean {
+
+        @Annotation("name")
+        private String name = "bean";
+        private int count;
+        private boolean active;
+
+        public String getName() {
+            return name;
+        }
+
+        @MetaAnnotation
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public void setURL(String url) {}
+    }
+
+    static class SubBean extends Bean {
+
+        private String secret;
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+    }
+
+    static class BeanView {
+
+        Object name;
+        int count;
+        long active;
+        final String constant = "c";
+    }
+
+    /**
+     * Loads classes itself rather than through its parent, as the loader of a plugin would.
+     */
+    static class ChildFirstClassLoader extends URLClassLoader {
+
+        private final Set<String> names;
+
+        ChildFirstClassLoader(File root, Set<String> names) throws IOException {
+            super(new URL[] {root.toURI().toURL()}, ReflectsTest.class.getClassLoader());
+            this.names = names;
+        }
+
+        @Override
+        protected synchronized java.lang.Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!names.contains(name)) {
+                return super.loadClass(name, resolve);
+            }
+            final java.lang.Class<?> r = findLoadedClass(name);
+            return null == r ? findClass(name) : r;
+        }
+
+        /**
+         * @param classes
+         * @return A new child-first loader, loading the classes again.
+         */
+        static ClassLoader of(java.lang.Class<?>... classes) throws Exception {
+            final File root = Files.createTempDir();
+            final Set<String> names = new HashSet<String>();
+            for (java.lang.Class<?> c: classes) {
+                final String path = c.getName().replace('.', '/') + ".class";
+                final File file = new File(root, path);
+                Files.createParentDirs(file);
+                Files.write(ByteStreams.toByteArray(c.getClassLoader().getResourceAsStream(path)), file);
+                names.add(c.getName());
+            }
+            return new ChildFirstClassLoader(root, names);
+        }
+
+        /**
+         * @param c
+         * @return The class, loaded again by a new child-first loader.
+         */
+        static java.lang.Class<?> reload(java.lang.Class<?> c) throws Exception {
+            return of(c).loadClass(c.getName());
+        }
+    }
+
     @Test
     public void testOnClass() throws Exception {
         assertTrue(onClass(LinkedHashMap.class).onClasses(true, true).get().contains(LinkedHashMap.class));
@@ -132,4 +309,740 @@ public class ReflectsTest {
         assertEquals("bar", ((Annotation) onClass(Class.class).onMethods().onAnnotations(true).filter(".*\\$Annotation").get(0)).value());
         assertEquals("foo", ((Annotation) onClass(Class.class).onMethods().onAnnotations(true).filter(".*\\$Annotation").get(1)).value());
     }
+
+    @Test
+    public void testClassMetadataCache() {
+
+        assertSame(ClassMetadata.of(Class.class), ClassMetadata.of(Class.class));
+        assertEquals(asList(Object.class), ClassMetadata.of(Class.class).superClasses);
+        assertEquals(asList(Interface.class, Serializable.class), ClassMetadata.of(Class.class).allInterfaces);
+
+        final List<Method> methods = onClass(Class.class).onMethods().get();
+
+        final ClassMetadata metadata = ClassMetadata.of(Class.class);
+        Reflects.invalidate(Class.class);
+        for (int i = 0; i < ResultCache.SLOTS; i++) {
+            assertNull(metadata.results.get(i));
+        }
+        assertEquals(methods, onClass(Class.class).onMethods().get());
+
+        final ClassMetadata interfaceMetadata = ClassMetadata.of(Interface.class);
+        final ClassMetadata classMetadata = ClassMetadata.of(Class.class);
+        final ClassMetadata objectMetadata = ClassMetadata.of(Object.class);
+        Reflects.invalidate(Interface.class);
+        assertNotSame(interfaceMetadata, ClassMetadata.of(Interface.class));
+        assertNotSame(classMetadata, ClassMetadata.of(Class.class));
+        assertSame(objectMetadata, ClassMetadata.of(Object.class));
+        assertEquals(methods, onClass(Class.class).onMethods().get());
+
+        Reflects.clearCache();
+        assertEquals(methods, onClass(Class.class).onMethods().get());
+    }
+
+    @Test
+    public void testOnMethodOnInheritedAnnotations() throws Exception {
+
+        final List<java.lang.annotation.Annotation> annotations = Reflects.onMethod(Class.class.getMethod("Method")).onAnnotations(true).get();
+        assertEquals(3, annotations.size());
+        assertEquals("bar", ((Annotation) annotations.get(0)).value());
+        assertEquals("foo", ((Annotation) annotations.get(2)).value());
+
+        assertEquals("Static methods do not override", 0, Reflects.onMethod(Class.class.getMethod("StaticMethod")).onAnnotations(true).get().size());
+    }
+
+    @Test
+    public void testNameMatcher() {
+
+        assertTrue(NameMatcher.literal("Method").matches("Method"));
+        assertFalse(NameMatcher.literal("Method").matches("StaticMethod"));
+        assertTrue(NameMatcher.literal("get.*").matches("getName"));
+        assertTrue(NameMatcher.literal(".*\\$Annotation").matches("my.jug.reflects.ReflectsTest$Annotation"));
+        assertTrue(NameMatcher.literal(".*tatic.*").matches("privateStaticField"));
+        assertNull(NameMatcher.literal(".*[sS]taticField"));
+        assertNull(NameMatcher.literal("a\\.*"));
+        assertNull(NameMatcher.literal("get.*Name"));
+
+        assertTrue(NameMatcher.of(".*[sS]taticField").matches("privateStaticField"));
+        assertSame(NameMatcher.of(".*[sS]taticField"), NameMatcher.of(".*[sS]taticField"));
+    }
+
+    @Test
+    public void testOnMethodOfPattern() {
+        assertEquals(2, onClass(Class.class).onMethods(true, true, true, false).filter(Pattern.compile(".*StaticMethod")).size());
+        assertEquals(1, onClass(Class.class).onMethods(true, true, true, false).filter(Pattern.compile("private.*", Pattern.CASE_INSENSITIVE)).size());
+        assertEquals(3, onClass(Class.class).onFields(true, true, true, true).filter(fieldOfName(Pattern.compile(".*[sS]taticField"))).size());
+    }
+
+    @Test
+    public void testOnPackage() {
+
+        final Reflects.OnPackage p = Reflects.onPackage("my.jug.reflects");
+        assertTrue(p.onClassFiles().toString().contains("my.jug.reflects.ReflectsTest$AnnotatedClass"));
+        assertTrue(p.onClasses(Deprecated.class).get().contains(AnnotatedClass.class));
+        assertFalse(p.onClasses(Deprecated.class).get().contains(Class.class));
+        assertTrue(p.onClasses(classFileOfName(".*\\$Interface")).get().contains(Interface.class));
+    }
+
+    @Test
+    public void testOnPackagesInJar() {
+        assertTrue(Reflects.onPackages("org.junit.runner", "org.junit.runners").onClasses(classFileOfName(".*\\.JUnitCore")).get().contains(JUnitCore.class));
+    }
+
+    @Test
+    public void testOnPackagesInParallel() {
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final Reflects.OnPackages serial = Reflects.onPackages("my.jug.reflects", "org.junit");
+            final Reflects.OnPackages parallel = serial.parallel(pool);
+
+            assertEquals(serial.onClassFiles().toString(), parallel.onClassFiles().toString());
+            assertEquals(serial.getScanTimes(TimeUnit.NANOSECONDS).keySet(), parallel.getScanTimes(TimeUnit.NANOSECONDS).keySet());
+            assertEquals(serial.onClassFiles().toString(), serial.parallel().onClassFiles().toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testOnPackagesSkipsUnreadableClassFiles() throws Exception {
+
+        final File root = Files.createTempDir();
+        final File dir = new File(root, "corrupt");
+        dir.mkdir();
+        Files.write(new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0}, new File(dir, "Truncated.class"));
+        Files.write("Not a class".getBytes("UTF-8"), new File(dir, "Text.class"));
+        Files.write(ByteStreams.toByteArray(getClass().getResourceAsStream("ReflectsTest$Pair.class")), new File(dir, "Pair.class"));
+
+        final ClassLoader cl = new URLClassLoader(new URL[] {root.toURI().toURL()}, getClass().getClassLoader());
+        final List<Reflects.ClassFile> classFiles = Reflects.onPackages(cl, "corrupt").onClassFiles();
+        assertEquals(1, classFiles.size());
+        assertEquals(Pair.class.getName(), classFiles.get(0).getName());
+    }
+
+    @Test
+    public void testOnPackagesFailsOnUnreadableRoot() throws Exception {
+
+        final File jar = File.createTempFile("reflects", ".jar");
+        jar.deleteOnExit();
+        Files.write("Not a jar".getBytes("UTF-8"), jar);
+        final ClassLoader cl = new URLClassLoader(new URL[] {jar.toURI().toURL()}, getClass().getClassLoader());
+
+        for (ForkJoinPool pool: asList(null, Parallel.pool())) {
+            try {
+                new ClassPathScanner(cl, asList("corrupt"), pool, null).scan();
+                fail("Scanned a corrupt jar in " + pool);
+            } catch (IOException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void testOnPackagesWithIndex() throws Exception {
+
+        final File file = File.createTempFile("reflects", ".idx");
+        file.delete();
+        file.deleteOnExit();
+
+        final Reflects.OnPackages scanned = Reflects.onPackages("my.jug.reflects", "org.junit.runner");
+        final Reflects.OnPackages indexed = scanned.withIndex(file);
+
+        assertEquals(scanned.onClassFiles().toString(), indexed.onClassFiles().toString());
+        assertTrue(file.isFile());
+
+        final ScanIndex index = ScanIndex.read(file);
+        assertEquals(scanned.onClassFiles().toString(), index.classFiles().toString());
+        assertTrue(index.classFiles(asList("org.junit.runner.notification")).toString().contains("org.junit.runner.notification.RunListener"));
+        assertFalse(index.classFiles(asList("org.junit.runner.notification")).toString().contains("org.junit.runner.JUnitCore"));
+        assertNull(index.classFiles(asList("org.junit")));
+        index.write(file);
+        assertEquals(index.classFiles().toString(), ScanIndex.read(file).classFiles().toString());
+
+        final long modified = file.lastModified();
+        assertEquals(scanned.onClassFiles().toString(), Reflects.onPackages("my.jug.reflects", "org.junit.runner").withIndex(file).onClassFiles().toString());
+        assertEquals("Unchanged index should not be rewritten", modified, file.lastModified());
+
+        final ClassLoader cl = new URLClassLoader(new URL[] {file.getParentFile().toURI().toURL()}, getClass().getClassLoader());
+        final Reflects.OnPackages resource = Reflects.onPackages(cl, "org.junit.runner").withIndexResource(file.getName());
+        assertEquals(index.classFiles(asList("org.junit.runner")).toString(), resource.onClassFiles().toString());
+        assertTrue(resource.getScanTimes(TimeUnit.NANOSECONDS).isEmpty());
+    }
+
+    @Test
+    public void testAnnotationIndex() throws Exception {
+
+        final Reflects.AnnotationIndex index = Reflects.onClasses(Interface.class, Class.class, AnnotatedClass.class, MetaAnnotatedClass.class).indexAnnotations();
+
+        assertEquals(asList(Interface.class.getMethod("Method"), Class.class.getMethod("Method")), index.onMethods(Annotation.class).get());
+        assertEquals(asList(Class.class.getMethod("Method")), index.onMethods(Deprecated.class).get());
+        assertEquals(asList(AnnotatedClass.class), index.onClasses(Deprecated.class).get());
+
+        assertEquals("Meta-annotations are indexed", asList(MetaAnnotatedClass.class), index.onClasses(Annotation.class).get());
+        assertEquals(asList(MetaAnnotatedClass.class.getDeclaredField("field")), index.onFields(Annotation.class).get());
+        assertTrue(index.onClasses(Retention.class).get().isEmpty());
+        assertTrue(index.getAnnotationTypes().contains(MetaAnnotation.class));
+
+        assertTrue(Reflects.onPackage("my.jug.reflects").indexAnnotations().onClasses(Annotation.class).get().contains(MetaAnnotatedClass.class));
+    }
+
+    @Test
+    public void testMethodInvoker() throws Throwable {
+
+        final Reflects.MethodInvoker invoker = Reflects.onMethod(String.class.getMethod("substring", int.class, int.class)).invoker();
+        assertSame(invoker, Reflects.onMethod(String.class.getMethod("substring", int.class, int.class)).invoker());
+        assertEquals("ell", invoker.invoke("hello", 1, 4));
+        assertEquals("ell", invoker.call("hello", 1, 4));
+        assertEquals("ell", (String) invoker.getHandle().invokeExact("hello", 1, 4));
+
+        final List<Reflects.MethodInvoker> invokers = Reflects.onMethods(onClass(Class.class).onMethods(false, true, true, false).filter(methodOfName("PrivateStaticMethod"))).invokers();
+        assertEquals(1, invokers.size());
+        assertNull(invokers.get(0).call(null));
+    }
+
+    @Test(expected = InvocationTargetException.class)
+    public void testMethodInvokerThrows() throws Exception {
+        Reflects.onMethod(String.class.getMethod("substring", int.class)).invoker().call("hello", 10);
+    }
+
+    @Test
+    public void testMethodInvokerWrongArguments() throws Exception {
+
+        final Reflects.MethodInvoker invoker = Reflects.onMethod(String.class.getMethod("substring", int.class, int.class)).invoker();
+        for (Object[] args: new Object[][] {{42, 1, 4}, {"hello", "1", 4}, {"hello", null, 4}, {"hello", 1}}) {
+            try {
+                invoker.invoke(args[0], Arrays.copyOfRange(args, 1, args.length));
+                fail("Invoked with " + asList(args));
+            } catch (IllegalArgumentException expected) {
+            } catch (InvocationTargetException e) {
+                fail("Invoked with " + asList(args) + ": " + e.getCause());
+            }
+        }
+        try {
+            invoker.call(null, 1, 4);
+            fail("Invoked without target");
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    @Test
+    public void testMethodInvokerThrowsClassCastException() throws Exception {
+        try {
+            Reflects.onMethod(Integer.class.getMethod("compareTo", Integer.class)).invoker().call(1, "1");
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            Reflects.onMethod(Comparable.class.getMethod("compareTo", Object.class)).invoker().call(1, "1");
+            fail();
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof ClassCastException);
+        }
+    }
+
+    @Test
+    public void testFieldAccessor() throws Exception {
+
+        final Primitives p = new Primitives();
+        final Reflects.FieldAccessor i = Reflects.onField(Primitives.class.getDeclaredField("i")).accessor();
+        assertSame(i, Reflects.onField(Primitives.class.getDeclaredField("i")).accessor());
+
+        i.setInt(p, 42);
+        assertEquals(42, p.i);
+        assertEquals(42, i.getInt(p));
+        assertEquals(42L, i.getLong(p));
+        assertEquals(42, i.get(p));
+        i.set(p, 7);
+        assertEquals(7, p.i);
+        i.setByte(p, (byte) 3);
+        assertEquals(3, p.i);
+
+        final Primitives copy = new Primitives();
+        p.d = 1.5;
+        p.s = "s";
+        for (Reflects.FieldAccessor a: onClass(Primitives.class).onFields(false, true, false, false).accessors()) {
+            a.copy(p, copy);
+        }
+        assertEquals(3, copy.i);
+        assertEquals(1.5, copy.d, 0);
+        assertEquals("s", copy.s);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFieldAccessorNarrowing() throws Exception {
+        Reflects.onField(Primitives.class.getDeclaredField("l")).accessor().getInt(new Primitives());
+    }
+
+    @Test
+    public void testFieldAccessorUnboxing() throws Exception {
+
+        final Reflects.FieldAccessor left = Reflects.onField(Pair.class.getDeclaredField("left")).accessor();
+        for (Pair p: asList(new Pair("l", "r"), new Pair(1, 2))) {
+            try {
+                left.getInt(p);
+                fail("Read an Object field as int");
+            } catch (IllegalArgumentException expected) {
+            }
+            try {
+                left.getLong(p);
+                fail("Read an Object field as long");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+        assertEquals(1, left.get(new Pair(1, 2)));
+    }
+
+    @Test
+    public void testQuery() {
+
+        final Reflects.Query<Method> q = onClass(Class.class).queryMethods(true, true, true, true);
+        assertEquals(onClass(Class.class).onMethods(true, true, true, true).get(), q.get());
+        assertEquals(2, q.count());
+        assertTrue(onClass(AnnotatedClass.class).queryAnnotations().transform(annotationToClass()).get().contains(Deprecated.class));
+
+        final int[] applied = {0};
+        assertEquals("StaticMethod", onClass(Class.class).queryMethods(true, false, true, false).seek(new Predicate<Method>() { @Override public boolean apply(@Nullable Method m) {
+            applied[0]++;
+            return true;
+        }}).getName());
+        assertEquals(1, applied[0]);
+
+        assertEquals("Method", onClass(Class.class).queryMethods().filter(methodOfName("M.*")).first().getName());
+        assertNull(onClass(Class.class).queryMethods().filter(methodOfName("None")).first());
+        assertEquals(onClass(Class.class).onAnnotations().get(), onClass(Class.class).queryAnnotations().get());
+    }
+
+    @Test
+    public void testOnClassesInParallel() {
+
+        final List<java.lang.Class<?>> classes = new ArrayList<java.lang.Class<?>>();
+        for (int i = 0; i < 10; i++) {
+            classes.addAll(asList(Class.class, Primitives.class, AnnotatedClass.class, ReflectsTest.class));
+        }
+
+        final Reflects.OnClasses serial = Reflects.onClasses(classes);
+        final Reflects.OnClasses parallel = serial.parallel();
+        assertEquals(serial.onMethods(true, true, false, true).get(), parallel.onMethods(true, true, false, true).get());
+        assertEquals(serial.onFields(true, true, false, false).get(), parallel.onFields(true, true, false, false).get());
+    }
+
+    @Test
+    public void testMemberQuery() {
+
+        final Reflects.MemberQuery publicStatic = Reflects.MemberQuery.builder().withModifiers(Modifier.PUBLIC | Modifier.STATIC).build();
+        assertEquals(onClass(Class.class).onMethods(true, true, true, false).filter(publicMethod()), onClass(Class.class).onMethods(true, true, true, false).filter(publicStatic));
+        assertEquals(2, onClass(Class.class).onFields(true, true, true, true).filter(publicStatic).size());
+
+        final Reflects.MemberQuery annotated = Reflects.MemberQuery.builder().withoutModifiers(Modifier.STATIC).named("M.*").annotatedWith(Annotation.class, Deprecated.class).build();
+        assertEquals(1, onClass(Class.class).onMethods(true, true, false, true).filter(annotated).size());
+        assertEquals(Class.class, onClass(Class.class).onMethods(true, true, false, true).seek(annotated).getDeclaringClass());
+
+        final Reflects.MemberQuery signature = Reflects.MemberQuery.builder().named("Method").ofType(void.class).withParameterTypes().declaredBy(Interface.class).build();
+        assertEquals(Interface.class, onClass(Class.class).onMethods(true, false, false, true).seek(signature).getDeclaringClass());
+        assertTrue(onClass(Class.class).onFields(true, true, true, true).filter(signature).isEmpty());
+    }
+
+    @Test
+    public void testMethodBySignature() throws Exception {
+
+        final Reflects.OnClass c = onClass(Derived.class);
+        assertEquals(Derived.class.getDeclaredMethod("value"), c.method("value"));
+        assertEquals(String.class, c.method("value").getReturnType());
+        assertEquals(Derived.class.getDeclaredMethod("compareTo", Derived.class), c.method("compareTo", Object.class));
+        assertEquals(Derived.class.getDeclaredMethod("compareTo", Derived.class), c.method("compareTo", Derived.class));
+        assertEquals(1, c.methodsNamed("compareTo").get().size());
+        assertEquals(Object.class.getMethod("toString"), c.method("toString"));
+        assertNull(c.method("toString", String.class));
+        assertTrue(c.methodsNamed("none").get().isEmpty());
+
+        assertEquals(Interface.class.getMethod("Method"), onClass(Interface.class).method("Method"));
+        assertEquals(Class.class.getMethod("Method"), onClass(Class.class).method("Method"));
+    }
+
+    @Test
+    public void testOnEffectiveMethods() throws Exception {
+
+        assertEquals(2, onClass(Class.class).onMethods(true, false, false, true).filter(methodOfName("Method")).size());
+        assertEquals(asList(Class.class.getMethod("Method")), onClass(Class.class).onEffectiveMethods().filter(methodOfName("Method")));
+
+        final List<Method> derived = onClass(Derived.class).onEffectiveMethods(true, false).get();
+        assertTrue(derived.contains(Derived.class.getDeclaredMethod("value")));
+        assertFalse(derived.contains(Base.class.getDeclaredMethod("value")));
+        assertEquals(1, onClass(Derived.class).onEffectiveMethods().filter(methodOfName("compareTo")).size());
+        for (Method m: derived) {
+            assertFalse(m.isBridge());
+        }
+        assertEquals(asList(Class.class.getMethod("StaticMethod")), onClass(Class.class).onEffectiveMethods(false, true).get());
+    }
+
+    @Test
+    public void testImmutableCollections() throws Exception {
+
+        final List<Method> methods = new ArrayList<Method>(asList(Class.class.getMethod("Method")));
+        final Reflects.OnMethods on = Reflects.onMethods(methods);
+        methods.clear();
+        assertEquals(1, on.get().size());
+        assertSame(on.get(), on.get());
+
+        for (List<?> l: asList(onClass(Class.class).onFields().get(), Reflects.onClasses(Class.class).transform(classToName()),
+                onClass(Class.class).queryMethods().get())) {
+            try {
+                l.clear();
+                fail("Cleared " + l);
+            } catch (UnsupportedOperationException expected) {
+            }
+        }
+
+        try {
+            Reflects.onMethods(Class.class.getMethod("Method"), null);
+            fail("Accepted a null method");
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    @Test
+    public void testCacheStats() {
+
+        onClass(Primitives.class).onFields(false, true, false, false);
+        final Reflects.CacheStats before = Reflects.getCacheStats();
+        assertSame(onClass(Primitives.class).onFields(false, true, false, false).get(), onClass(Primitives.class).onFields(false, true, false, false).get());
+
+        final Reflects.CacheStats after = Reflects.getCacheStats();
+        assertTrue(after.getHitCount() - before.getHitCount() >= 2);
+        assertTrue(after.getMissCount() >= before.getMissCount());
+        assertTrue(after.getSize() > 0 && after.getSize() <= after.getMaximumSize());
+    }
+
+    @Test
+    public void testListenerCacheHits() {
+
+        final List<String> events = new ArrayList<String>();
+        Reflects.setListener(new Reflects.Listener() {
+            @Override public void onCacheHit(Operation operation) {
+                events.add(operation + ":hit");
+            }
+            @Override public void onCacheMiss(Operation operation) {
+                events.add(operation + ":miss");
+            }
+        });
+
+        try {
+            Reflects.invalidate(Primitives.class);
+            onClass(Primitives.class).onAnnotations(false);
+            onClass(Primitives.class).onAnnotations(false);
+            assertEquals(asList("ON_CLASS:miss", "ON_ANNOTATIONS:miss", "ON_CLASS:hit", "ON_ANNOTATIONS:hit"), events);
+        } finally {
+            Reflects.setListener(null);
+        }
+    }
+
+    @Test
+    public void testListener() {
+
+        final List<String> events = new ArrayList<String>();
+        Reflects.setListener(new Reflects.Listener() {
+            @Override public void onOperation(Operation operation, long elapsedNanos, int classes, int members) {
+                events.add(operation + ":" + classes + ":" + members);
+            }
+            @Override public void onCacheHit(Operation operation) {
+                events.add(operation + ":hit");
+            }
+        });
+
+        try {
+            Reflects.invalidate(Primitives.class);
+            final Reflects.OnClass c = onClass(Primitives.class);
+            c.onFields(false, true, false, false);
+            c.onFields(false, true, false, false).seek(fieldOfName("i"));
+            assertEquals(asList("ON_CLASS:1:0", "ON_FIELDS:1:5", "ON_FIELDS:hit", "ON_FIELDS:0:0", "SEEK:0:2"), events);
+        } finally {
+            Reflects.setListener(null);
+        }
+
+        events.clear();
+        onClass(Primitives.class).onFields();
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testAnnotationData() throws Exception {
+
+        final List<Reflects.AnnotationData> values = Reflects.onAnnotations(onClass(Class.class).onMethods().onAnnotations(true).filter(".*\\$Annotation")).values();
+        assertEquals("bar", values.get(0).getValue());
+        assertEquals("foo", values.get(1).getString("value"));
+        assertEquals(0, values.get(0).indexOf("value"));
+        assertEquals(Collections.singletonMap("value", "bar"), values.get(0).getValues());
+
+        final java.lang.annotation.Annotation retention = onClass(Annotation.class).onAnnotations(false).get().get(0);
+        assertSame(Reflects.AnnotationData.of(retention), Reflects.AnnotationData.of(retention));
+        assertEquals(RetentionPolicy.RUNTIME, Reflects.AnnotationData.of(retention).getEnum("value", RetentionPolicy.class));
+
+        final Test test = ReflectsTest.class.getMethod("testAnnotationDataNoAttribute").getAnnotation(Test.class);
+        assertSame(IllegalArgumentException.class, Reflects.AnnotationData.of(test).getType("expected"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAnnotationDataNoAttribute() {
+        Reflects.AnnotationData.of(onClass(Annotation.class).onAnnotations(false).get().get(0)).get("none");
+    }
+
+    @Test
+    public void testMetaAnnotatedWith() throws Exception {
+
+        assertTrue(classMetaAnnotatedWith(Annotation.class).apply(MetaAnnotatedClass.class));
+        assertTrue(classMetaAnnotatedWith(MetaAnnotation.class).apply(MetaAnnotatedClass.class));
+        assertFalse(classAnnotatedWith(Annotation.class).apply(MetaAnnotatedClass.class));
+        assertFalse(classMetaAnnotatedWith(Annotation.class).apply(AnnotatedClass.class));
+
+        assertEquals(asList(MetaAnnotatedClass.class), Reflects.onClasses(AnnotatedClass.class, MetaAnnotatedClass.class).filterMetaAnnotated(Annotation.class));
+        assertEquals(asList(MetaAnnotatedClass.class.getDeclaredField("field")), onClass(MetaAnnotatedClass.class).onFields(false, true, false, false).filterMetaAnnotated(Annotation.class));
+        assertEquals(1, onClass(Class.class).onMethods().filterMetaAnnotated(Annotation.class).size());
+
+        assertTrue(Reflects.MemberQuery.builder().metaAnnotatedWith(Annotation.class).build().apply(MetaAnnotatedClass.class.getDeclaredField("field")));
+    }
+
+    @Test
+    public void testOnClassesSharedAncestors() {
+
+        final Reflects.OnClasses classes = Reflects.onClasses(Derived.class, Base.class, Class.class);
+        final List<Method> methods = classes.onMethods(true, true, false, true).get();
+
+        final List<Method> expected = new ArrayList<Method>();
+        for (java.lang.Class<?> c: classes.get()) {
+            expected.addAll(onClass(c).queryMethods(true, true, false, true).get());
+        }
+        assertEquals(expected, methods);
+        assertSame(ClassMetadata.of(Object.class).declaredMethods(true, false), ClassMetadata.of(Object.class).declaredMethods(true, false));
+    }
+
+    @Test
+    public void testVisitors() {
+
+        final List<Object> visited = new ArrayList<Object>();
+        final Reflects.Visitor<Object> all = new Reflects.Visitor<Object>() { @Override public boolean visit(Object e) {
+            return visited.add(e);
+        }};
+
+        assertTrue(onClass(Class.class).visitMethods(true, true, false, true, all));
+        assertEquals(onClass(Class.class).onMethods(true, true, false, true).get(), visited);
+
+        visited.clear();
+        assertTrue(onClass(Class.class).visitFields(true, true, true, true, all));
+        assertEquals(onClass(Class.class).onFields(true, true, true, true).get(), visited);
+
+        visited.clear();
+        assertTrue(onClass(Class.class).visitAnnotations(true, all));
+        assertEquals(onClass(Class.class).onAnnotations(true).get(), visited);
+
+        visited.clear();
+        assertTrue(onClass(Class.class).visitAnnotations(all));
+        assertEquals(onClass(Class.class).onAnnotations().get(), visited);
+
+        visited.clear();
+        assertFalse(onClass(Class.class).visitMethods(true, true, false, true, new Reflects.Visitor<Method>() { @Override public boolean visit(Method m) {
+            visited.add(m);
+            return false;
+        }}));
+        assertEquals(1, visited.size());
+    }
+
+    @Test
+    public void testOnConstructors() throws Throwable {
+
+        assertEquals(1, onClass(Pair.class).onConstructors().get().size());
+        assertEquals(2, onClass(Pair.class).onConstructors(true).get().size());
+        assertEquals(asList(Pair.class.getDeclaredConstructor(Object.class, Object.class)), onClass(Pair.class).onConstructors(true).filter(Annotation.class));
+        assertEquals("pair", ((Annotation) onClass(Pair.class).onConstructors(true).onAnnotations().get().get(0)).value());
+        assertSame(onClass(Pair.class).constructor(), onClass(Pair.class).onConstructors(true).seek(constructorOfParameterTypes()));
+
+        final Reflects.Instantiator<Pair> instantiator = Reflects.instantiator(Pair.class, Object.class, Object.class);
+        assertSame(instantiator, Reflects.onConstructor(onClass(Pair.class).constructor(Object.class, Object.class)).instantiator());
+        assertEquals("l", instantiator.create("l", "r").left);
+        assertEquals("r", instantiator.newInstance("l", "r").right);
+        assertEquals("r", ((Pair) instantiator.getHandle().invokeExact((Object) "l", (Object) "r")).right);
+        assertNull(Reflects.instantiator(Pair.class).asSupplier().get().left);
+        assertEquals("s", Reflects.instantiator(StringBuilder.class, String.class).asFunction().apply("s").toString());
+    }
+
+    @Test(expected = InvocationTargetException.class)
+    public void testInstantiatorThrows() throws Exception {
+        Reflects.instantiator(StringBuilder.class, int.class).create(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInstantiatorWrongArguments() throws Exception {
+        Reflects.instantiator(StringBuilder.class, int.class).create("1");
+    }
+
+    @Test
+    public void testOnProperties() throws Throwable {
+
+        final Reflects.OnProperties properties = onClass(Bean.class).onProperties();
+        assertEquals(asList("URL", "active", "count", "name"), properties.transform(new Function<Reflects.Property, String>() { @Override public String apply(Reflects.Property p) {
+            return p.getName();
+        }}));
+        assertSame(onClass(Bean.class).property("count"), onClass(Bean.class).onProperties().seek(propertyOfName("count")));
+
+        final Reflects.Property name = onClass(Bean.class).property("name");
+        assertEquals(String.class, name.getType());
+        assertEquals(Bean.class.getDeclaredField("name"), name.getField());
+        assertTrue(name.isReadable());
+        assertFalse(name.isWritable());
+        assertNull(name.getSetter());
+        assertEquals("name", name.getAnnotation(Annotation.class).value());
+        assertEquals(asList(name), properties.filter(Annotation.class));
+        assertEquals(asList(onClass(Bean.class).property("count"), name), properties.filterMetaAnnotated(Annotation.class));
+
+        final Bean bean = new Bean();
+        assertEquals("bean", name.get(bean));
+        try {
+            name.set(bean, "b");
+            fail("Wrote a property without setter");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals("bean", bean.name);
+
+        final Reflects.Property count = onClass(Bean.class).property("count");
+        count.set(bean, 42);
+        assertEquals(42, count.get(bean));
+        count.getWriteHandle().invokeExact(bean, 7);
+        assertEquals(7, (int) count.getReadHandle().invokeExact(bean));
+        assertEquals(boolean.class, onClass(Bean.class).property("active").getType());
+        assertFalse(onClass(Bean.class).property("URL").isReadable());
+    }
+
+    @Test
+    public void testPropertyHandlesOfSubclass() throws Throwable {
+
+        final Reflects.Property count = onClass(SubBean.class).property("count");
+        assertSame(SubBean.class, count.getDeclaringClass());
+        assertSame(Bean.class, count.getGetter().getDeclaringClass());
+
+        final SubBean bean = new SubBean();
+        count.getWriteHandle().invokeExact(bean, 7);
+        assertEquals(7, (int) count.getReadHandle().invokeExact(bean));
+        assertEquals("bean", (String) onClass(SubBean.class).property("name").getReadHandle().invokeExact(bean));
+    }
+
+    @Test
+    public void testPropertyNotReadThroughField() {
+
+        final Reflects.Property secret = onClass(SubBean.class).property("secret");
+        assertFalse(secret.isReadable());
+        assertTrue(secret.isWritable());
+
+        final SubBean bean = new SubBean();
+        secret.set(bean, "s");
+        assertEquals("s", bean.secret);
+        try {
+            secret.get(bean);
+            fail("Read a property without getter");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        assertFalse(Reflects.copier(SubBean.class, SubBean.class, false).getNames().contains("secret"));
+        assertEquals("s", Reflects.copier(SubBean.class, SubBean.class, true).map(bean).secret);
+    }
+
+    @Test
+    public void testCopier() throws Throwable {
+
+        final Bean bean = new Bean();
+        bean.count = 42;
+        assertEquals(asList("active", "count"), Reflects.copier(Bean.class, Bean.class, false).getNames());
+        assertEquals(42, Reflects.copier(Bean.class, Bean.class, false).map(bean).getCount());
+        assertTrue(Reflects.copier(Bean.class, BeanView.class, false).getNames().isEmpty());
+
+        final Reflects.Copier<Bean, BeanView> copier = Reflects.copier(Bean.class, BeanView.class);
+        assertSame(copier, Reflects.copier(Bean.class, BeanView.class, true));
+        assertNotSame(copier, Reflects.copier(Bean.class, BeanView.class, false));
+        assertTrue(copier.isIncludeFields());
+        assertEquals(new HashSet<String>(asList("count", "name")), new HashSet<String>(copier.getNames()));
+        assertTrue(copier.isCompiled());
+
+        final BeanView view = copier.map(bean);
+        assertEquals("bean", view.name);
+        assertEquals(42, view.count);
+        assertEquals(0, view.active);
+
+        view.count = 7;
+        copier.getHandle().invokeExact(new Bean(), view);
+        assertEquals(0, view.count);
+
+        view.name = 1;
+        assertEquals(asList("count"), Reflects.copier(BeanView.class, Bean.class).getNames());
+        assertEquals(0, Reflects.copier(BeanView.class, Bean.class).copy(view, bean).getCount());
+        assertEquals(asList("active", "count", "name"), Reflects.copier(Bean.class, Bean.class).getNames());
+    }
+
+    @Test
+    public void testCopierDoesNotPinClassLoader() throws Exception {
+
+        assertCollected(copyToPlugin());
+    }
+
+    @Test
+    public void testAnnotationBitsReassigned() throws Exception {
+
+        final int[] id = new int[1];
+        assertCollected(annotationOfPlugin(id));
+
+        final java.lang.Class<?> type = ChildFirstClassLoader.reload(Annotation.class);
+        assertTrue(AnnotationBits.id(type.asSubclass(java.lang.annotation.Annotation.class)) <= id[0]);
+    }
+
+    private static WeakReference<ClassLoader> annotationOfPlugin(int[] id) throws Exception {
+        final java.lang.Class<?> type = ChildFirstClassLoader.reload(Annotation.class);
+        id[0] = AnnotationBits.id(type.asSubclass(java.lang.annotation.Annotation.class));
+        assertEquals(id[0], AnnotationBits.id(type.asSubclass(java.lang.annotation.Annotation.class)));
+        assertTrue(id[0] != AnnotationBits.id(Annotation.class));
+        return new WeakReference<ClassLoader>(type.getClassLoader());
+    }
+
+    @Test
+    public void testMethodInvokerDoesNotPinClassLoader() throws Exception {
+
+        assertCollected(invokePlugin());
+    }
+
+    private static WeakReference<ClassLoader> invokePlugin() throws Exception {
+        final java.lang.Class<?> plugin = ChildFirstClassLoader.reload(Bean.class);
+        final Object bean = Reflects.instantiator(plugin).newInstance();
+        assertEquals("bean", Reflects.onMethod(plugin.getMethod("getName")).invoker().invoke(bean));
+        return new WeakReference<ClassLoader>(plugin.getClassLoader());
+    }
+
+    @Test
+    public void testAnnotationDataDoesNotPinClassLoader() throws Exception {
+
+        assertCollected(annotationDataOfPlugin());
+    }
+
+    private static WeakReference<ClassLoader> annotationDataOfPlugin() throws Exception {
+        final ClassLoader cl = ChildFirstClassLoader.of(Class.class, Interface.class, Annotation.class);
+        final Method m = cl.loadClass(Class.class.getName()).getMethod("Method");
+        final java.lang.annotation.Annotation a = m.getAnnotation(cl.loadClass(Annotation.class.getName()).asSubclass(java.lang.annotation.Annotation.class));
+        assertEquals("bar", Reflects.AnnotationData.of(a).getValue());
+        assertSame(Reflects.AnnotationData.of(a), Reflects.AnnotationData.of(a));
+        return new WeakReference<ClassLoader>(cl);
+    }
+
+    /**
+     * Runs the garbage collector until the referent is collected, or fails after a second.
+     */
+    private static void assertCollected(WeakReference<?> reference) throws InterruptedException {
+        for (int i = 0; i < 100 && null != reference.get(); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+
+    private static WeakReference<ClassLoader> copyToPlugin() throws Exception {
+        final java.lang.Class<?> plugin = ChildFirstClassLoader.reload(Bean.class);
+        assertNotSame(Bean.class, plugin);
+        assertSame(Reflects.copier(Bean.class, plugin), Reflects.copier(Bean.class, plugin));
+        assertSame(Reflects.copier(plugin, Bean.class), Reflects.copier(plugin, Bean.class));
+        assertEquals(Reflects.copier(Bean.class, BeanView.class).getNames(), Reflects.copier(plugin, BeanView.class).getNames());
+        return new WeakReference<ClassLoader>(plugin.getClassLoader());
+    }
 }